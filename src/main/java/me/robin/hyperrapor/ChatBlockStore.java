@@ -0,0 +1,222 @@
+package me.robin.hyperrapor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Optional chat storage engine: groups a player's messages into time buckets
+// (e.g. 5 minutes) and stores each bucket as one compressed BLOB row in
+// chatlog_bloklari instead of one chatlogs row per message.
+//
+// Block payload (deflated): [count:varint][base zaman:long] then per message
+// [zaman delta:zigzag varint][mesaj:UTF]. A bucket may end up in more than one
+// row when a block is flushed early (size or age limit); readers merge them.
+final class ChatBlockStore {
+
+    static final class Block {
+        final UUID uuid;
+        final long kova;
+        final List<ChatLine> lines = new ArrayList<>();
+        final long opened;
+        Block(UUID uuid, long kova, long opened){ this.uuid = uuid; this.kova = kova; this.opened = opened; }
+    }
+
+    private final long bucketMillis;
+    private final int maxLines;
+    private final long maxAgeMillis;
+
+    private final Map<UUID, Block> open = new HashMap<>();
+    private final List<Block> sealed = new ArrayList<>();   // waiting for the next flush
+    private final List<Block> inFlight = new ArrayList<>(); // being written right now
+
+    ChatBlockStore(int bucketMinutes, int maxLines, int maxAgeSeconds){
+        this.bucketMillis = Math.max(1, bucketMinutes) * 60_000L;
+        this.maxLines = Math.max(1, maxLines);
+        this.maxAgeMillis = Math.max(1, maxAgeSeconds) * 1000L;
+    }
+
+    long bucketOf(long zaman){
+        return zaman / bucketMillis;
+    }
+
+    synchronized void add(UUID uuid, String mesaj, long zaman){
+        long kova = bucketOf(zaman);
+        Block b = open.get(uuid);
+        if (b != null && (b.kova != kova || b.lines.size() >= maxLines)){
+            sealed.add(b);
+            b = null;
+        }
+        if (b == null){
+            b = new Block(uuid, kova, System.currentTimeMillis());
+            open.put(uuid, b);
+        }
+        b.lines.add(new ChatLine(uuid, mesaj, zaman));
+    }
+
+    // Seals blocks whose bucket has ended or that have waited too long, and hands them
+    // (plus anything sealed earlier) to the caller. Call release() once written.
+    synchronized List<Block> takeDue(long now, boolean all){
+        long currentKova = bucketOf(now);
+        Iterator<Block> it = open.values().iterator();
+        while (it.hasNext()){
+            Block b = it.next();
+            if (all || b.kova < currentKova || now - b.opened >= maxAgeMillis){
+                sealed.add(b);
+                it.remove();
+            }
+        }
+        if (sealed.isEmpty()) return new ArrayList<>();
+        List<Block> due = new ArrayList<>(sealed);
+        sealed.clear();
+        inFlight.addAll(due);
+        return due;
+    }
+
+    synchronized void release(List<Block> blocks){
+        inFlight.removeAll(blocks);
+    }
+
+    // Journal replay: lines grouped straight into blocks by player and bucket, bypassing the
+    // open / sealed sets, so they never wait in memory or get journaled a second time.
+    List<Block> blocksOf(List<ChatLine> lines){
+        Map<String, Block> current = new HashMap<>();
+        List<Block> out = new ArrayList<>();
+        for (ChatLine l : lines){
+            long kova = bucketOf(l.zaman);
+            String key = l.uuid + ":" + kova;
+            Block b = current.get(key);
+            if (b == null || b.lines.size() >= maxLines){
+                b = new Block(l.uuid, kova, 0L);
+                current.put(key, b);
+                out.add(b);
+            }
+            b.lines.add(l);
+        }
+        return out;
+    }
+
+    void write(Database db, List<Block> blocks) throws SQLException, IOException {
+        // compress outside the connection lock
+        insert(db, blocks, encodeAll(blocks));
+    }
+
+    static byte[][] encodeAll(List<Block> blocks) throws IOException {
+        byte[][] data = new byte[blocks.size()][];
+        for (int i = 0; i < data.length; i++) data[i] = encode(blocks.get(i).lines);
+        return data;
+    }
+
+    // Joins the caller's transaction when there is one.
+    static void insert(Database db, List<Block> blocks, byte[][] data) throws SQLException {
+        db.transaction(c -> {
+            PreparedStatement ps = db.prepare(c, "INSERT INTO chatlog_bloklari (uuid, kova, ilk_zaman, son_zaman, adet, veri) VALUES (?, ?, ?, ?, ?, ?)");
+            for (int i = 0; i < data.length; i++){
+                Block b = blocks.get(i);
+                ps.setString(1, b.uuid.toString());
+                ps.setLong(2, b.kova);
+                ps.setLong(3, b.lines.get(0).zaman);
+                ps.setLong(4, b.lines.get(b.lines.size() - 1).zaman);
+                ps.setInt(5, b.lines.size());
+                ps.setBytes(6, data[i]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return null;
+        });
+    }
+
+    // Messages of one player in [from, to], oldest first: stored blocks plus whatever
+    // is still buffered in memory.
+    List<ChatLine> read(Database db, UUID uuid, long from, long to) throws SQLException, IOException {
+        List<byte[]> stored = db.read(c -> {
+            PreparedStatement ps = db.prepare(c, "SELECT veri FROM chatlog_bloklari WHERE uuid = ? AND kova BETWEEN ? AND ? ORDER BY kova ASC, id ASC");
+            ps.setString(1, uuid.toString());
+            ps.setLong(2, bucketOf(from));
+            ps.setLong(3, bucketOf(to));
+            List<byte[]> rows = new ArrayList<>(2);
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()) rows.add(rs.getBytes(1));
+            }
+            return rows;
+        });
+        List<ChatLine> out = new ArrayList<>();
+        for (byte[] data : stored) decodeInto(uuid, data, from, to, out);
+        synchronized (this){
+            for (Block b : inFlight) if (b.uuid.equals(uuid)) collect(b, from, to, out);
+            for (Block b : sealed) if (b.uuid.equals(uuid)) collect(b, from, to, out);
+            Block b = open.get(uuid);
+            if (b != null) collect(b, from, to, out);
+        }
+        out.sort((x, y) -> Long.compare(x.zaman, y.zaman));
+        return out;
+    }
+
+    private static void collect(Block b, long from, long to, List<ChatLine> out){
+        for (ChatLine l : b.lines) if (l.zaman >= from && l.zaman <= to) out.add(l);
+    }
+
+    static byte[] encode(List<ChatLine> lines) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 + lines.size() * 32);
+        DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bos));
+        long base = lines.get(0).zaman;
+        writeVarLong(out, lines.size());
+        out.writeLong(base);
+        long prev = base;
+        for (ChatLine l : lines){
+            long d = l.zaman - prev;
+            writeVarLong(out, (d << 1) ^ (d >> 63));
+            out.writeUTF(l.mesaj);
+            prev = l.zaman;
+        }
+        out.close();
+        return bos.toByteArray();
+    }
+
+    private static void decodeInto(UUID uuid, byte[] data, long from, long to, List<ChatLine> out) throws IOException {
+        DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)));
+        try {
+            int count = (int) readVarLong(in);
+            long prev = in.readLong();
+            for (int i = 0; i < count; i++){
+                long z = readVarLong(in);
+                prev += (z >>> 1) ^ -(z & 1);
+                String mesaj = in.readUTF();
+                if (prev >= from && prev <= to) out.add(new ChatLine(uuid, mesaj, prev));
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0){
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        int shift = 0;
+        while (true){
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package me.robin.hyperrapor;
+
+import java.util.UUID;
+
+// One logged chat message.
+final class ChatLine {
+    final UUID uuid;
+    final String mesaj;
+    final long zaman;
+
+    ChatLine(UUID uuid, String mesaj, long zaman){
+        this.uuid = uuid;
+        this.mesaj = mesaj;
+        this.zaman = zaman;
+    }
+}
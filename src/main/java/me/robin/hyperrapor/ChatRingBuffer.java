@@ -0,0 +1,91 @@
+package me.robin.hyperrapor;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size multi-producer / single-consumer ring of reusable chat slots.
+// Async chat threads publish with a single CAS and no allocation; one drain task
+// reads the slots back in publish order and hands them to a sink.
+final class ChatRingBuffer {
+
+    interface Sink {
+        void accept(UUID uuid, String mesaj, long zaman);
+    }
+
+    private final int capacity;
+    private final int mask;
+    // per-slot sequence: == pos when free for producer pos, == pos+1 when published
+    private final AtomicLongArray sequences;
+    private final UUID[] uuids;
+    private final String[] mesajlar;
+    private final long[] zamanlar;
+
+    private final AtomicLong tail = new AtomicLong(); // next position to claim (producers)
+    private long head; // next position to read (consumer only)
+    private final AtomicLong dropped = new AtomicLong();
+
+    ChatRingBuffer(int requestedCapacity){
+        int cap = 1;
+        while (cap < Math.max(2, requestedCapacity)) cap <<= 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.sequences = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) sequences.set(i, i);
+        this.uuids = new UUID[cap];
+        this.mesajlar = new String[cap];
+        this.zamanlar = new long[cap];
+    }
+
+    // Called from any thread. Returns false (and counts a drop) when the ring is full.
+    boolean offer(UUID uuid, String mesaj, long zaman){
+        long pos = tail.get();
+        while (true){
+            int idx = (int) (pos & mask);
+            long seq = sequences.get(idx);
+            long dif = seq - pos;
+            if (dif == 0){
+                if (tail.compareAndSet(pos, pos + 1)){
+                    uuids[idx] = uuid;
+                    mesajlar[idx] = mesaj;
+                    zamanlar[idx] = zaman;
+                    sequences.lazySet(idx, pos + 1); // publish
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0){
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // Must only be called by one thread at a time.
+    int drain(Sink sink, int max){
+        int n = 0;
+        while (n < max){
+            int idx = (int) (head & mask);
+            if (sequences.get(idx) != head + 1) break; // not yet published
+            UUID u = uuids[idx];
+            String m = mesajlar[idx];
+            long z = zamanlar[idx];
+            uuids[idx] = null;
+            mesajlar[idx] = null;
+            sequences.lazySet(idx, head + capacity); // hand slot back to producers
+            head++;
+            n++;
+            sink.accept(u, m, z);
+        }
+        return n;
+    }
+
+    boolean isEmpty(){
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    long takeDropped(){
+        return dropped.getAndSet(0);
+    }
+}
@@ -0,0 +1,103 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.Server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+// Console commands from approvals and punishment expiry. Any thread may submit; the main
+// thread runs them from tick() under a per-tick count and time budget, so a burst of
+// approvals spreads over a few ticks instead of landing in one. The same command for the
+// same target within the dedupe window runs only once. Failed commands are logged and
+// reported to the staff member who caused them.
+final class CommandDispatcher {
+
+    private static final class Job {
+        final String command;
+        final String target;
+        final UUID requester; // null = system (e.g. punishment expiry)
+        Job(String command, String target, UUID requester){ this.command = command; this.target = target; this.requester = requester; }
+    }
+
+    private final Server server;
+    private final Logger logger;
+    private final BiConsumer<UUID, String> onFailure; // (requester, command), main thread
+    private final ConcurrentLinkedQueue<Job> queue = new ConcurrentLinkedQueue<>();
+    // target + command -> last run, oldest first (main thread only)
+    private final LinkedHashMap<String, Long> recent = new LinkedHashMap<>();
+
+    private volatile int maxPerTick;
+    private volatile long budgetNanos;
+    private volatile long dedupeMillis;
+
+    CommandDispatcher(Server server, Logger logger, BiConsumer<UUID, String> onFailure){
+        this.server = server;
+        this.logger = logger;
+        this.onFailure = onFailure;
+    }
+
+    void configure(int maxPerTick, double budgetMillis, int dedupeSeconds){
+        this.maxPerTick = Math.max(1, maxPerTick);
+        this.budgetNanos = Math.max(50_000L, (long) (budgetMillis * 1_000_000L));
+        this.dedupeMillis = Math.max(0, dedupeSeconds) * 1000L;
+    }
+
+    void submit(String command, String target, UUID requester){
+        if (command == null || command.trim().isEmpty()) return;
+        queue.add(new Job(command, target == null ? "" : target, requester));
+    }
+
+    // main thread, once per tick; always runs at least one command when any is queued
+    void tick(){
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        pruneRecent(now);
+        int ran = 0;
+        Job job;
+        while (ran < maxPerTick && System.nanoTime() - start < budgetNanos && (job = queue.poll()) != null){
+            if (run(job, now)) ran++;
+        }
+    }
+
+    // main thread, on disable: whatever is still queued runs now
+    void flush(){
+        long now = System.currentTimeMillis();
+        Job job;
+        while ((job = queue.poll()) != null) run(job, now);
+    }
+
+    // false if skipped as a duplicate
+    private boolean run(Job job, long now){
+        String key = job.target + '\u0000' + job.command;
+        Long last = recent.get(key);
+        if (last != null && now - last < dedupeMillis) return false;
+        recent.remove(key); // re-insert at the tail to keep the map ordered by time
+        recent.put(key, now);
+        boolean ok;
+        String error = null;
+        try {
+            ok = server.dispatchCommand(server.getConsoleSender(), job.command);
+        } catch (Exception e){
+            ok = false;
+            error = e.getMessage();
+        }
+        if (!ok){
+            logger.warning("Komut çalıştırılamadı: /" + job.command + (error != null ? " (" + error + ")" : ""));
+            if (job.requester != null) onFailure.accept(job.requester, job.command);
+        }
+        return true;
+    }
+
+    private void pruneRecent(long now){
+        Iterator<Map.Entry<String, Long>> it = recent.entrySet().iterator();
+        while (it.hasNext()){
+            if (now - it.next().getValue() < dedupeMillis) break;
+            it.remove();
+        }
+    }
+}
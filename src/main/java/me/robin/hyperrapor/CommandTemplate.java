@@ -0,0 +1,54 @@
+package me.robin.hyperrapor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// An onay-komutlari line split once into literal text and %placeholder% parts, so
+// rendering is a single pass instead of one String.replace per placeholder.
+final class CommandTemplate {
+
+    private final List<String> parts = new ArrayList<>(); // even index = literal, odd = placeholder name
+
+    CommandTemplate(String template){
+        int i = 0;
+        StringBuilder lit = new StringBuilder();
+        while (i < template.length()){
+            int open = template.indexOf('%', i);
+            int close = open < 0 ? -1 : template.indexOf('%', open + 1);
+            if (open < 0 || close < 0){
+                lit.append(template, i, template.length());
+                break;
+            }
+            String name = template.substring(open + 1, close);
+            if (name.isEmpty() || name.indexOf(' ') >= 0){
+                // not a placeholder (e.g. "100%"), keep the first % as text
+                lit.append(template, i, open + 1);
+                i = open + 1;
+                continue;
+            }
+            lit.append(template, i, open);
+            parts.add(lit.toString());
+            parts.add(name);
+            lit.setLength(0);
+            i = close + 1;
+        }
+        parts.add(lit.toString());
+    }
+
+    // Unknown placeholders are left as written.
+    String render(Map<String, String> values){
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.size(); i++){
+            String part = parts.get(i);
+            if (i % 2 == 0){
+                sb.append(part);
+            } else {
+                String v = values.get(part);
+                if (v != null) sb.append(v);
+                else sb.append('%').append(part).append('%');
+            }
+        }
+        return sb.toString();
+    }
+}
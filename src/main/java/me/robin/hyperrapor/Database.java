@@ -0,0 +1,639 @@
+package me.robin.hyperrapor;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Owns the JDBC connection, the schema and a per-connection cache of prepared statements.
+// All access goes through read()/write(), which hold the connection's lock for the duration
+// of the work, so cached statements are never used by two threads at once and a write may
+// safely run its own transaction.
+//
+// SQLite can additionally run in WAL mode with a small pool of query-only reader
+// connections: write() keeps the single writer, read() borrows a reader, so staff queries
+// no longer wait behind the chat insert stream.
+final class Database {
+
+    enum Dialect { MYSQL, SQLITE }
+
+    interface SqlWork<T> {
+        T run(Connection c) throws SQLException;
+    }
+
+    private final Dialect dialect;
+    private final String url;
+    private final String user;
+    private final String pass;
+    private final Logger logger;
+
+    // one JDBC connection with its statement cache; used by one thread at a time
+    private static final class Slot {
+        Connection connection;
+        final Map<String, PreparedStatement> statements = new HashMap<>();
+    }
+
+    private final Object lock = new Object();
+    private Connection connection; // guarded by lock
+    private final Map<String, PreparedStatement> statements = new HashMap<>(); // guarded by lock
+
+    // SQLite tuning (configureSqlite); readers == 0 keeps the single shared connection
+    private boolean sqliteWal;
+    private int sqliteCacheKb;
+    private int sqliteMmapMb;
+    private int sqliteBusyMs;
+    private Slot[] readers = new Slot[0];
+    private BlockingQueue<Slot> idleReaders;
+
+    Database(Dialect dialect, String url, String user, String pass, Logger logger){
+        this.dialect = dialect;
+        this.url = url;
+        this.user = user;
+        this.pass = pass;
+        this.logger = logger;
+    }
+
+    Dialect dialect(){
+        return dialect;
+    }
+
+    // Call before connect(). Ignored for MySQL.
+    void configureSqlite(boolean wal, int readerCount, int cacheKb, int mmapMb, int busyTimeoutMs){
+        if (dialect != Dialect.SQLITE) return;
+        this.sqliteWal = wal;
+        this.sqliteCacheKb = cacheKb;
+        this.sqliteMmapMb = mmapMb;
+        this.sqliteBusyMs = busyTimeoutMs;
+        // readers only see committed data concurrently with the writer under WAL
+        int n = wal ? Math.max(0, readerCount) : 0;
+        readers = new Slot[n];
+        idleReaders = n == 0 ? null : new ArrayBlockingQueue<>(n);
+        for (int i = 0; i < n; i++){
+            readers[i] = new Slot();
+            idleReaders.add(readers[i]);
+        }
+    }
+
+    // Opens the connection, or reopens it if it has gone stale, and makes sure all tables exist.
+    void connect() throws SQLException {
+        synchronized (lock){
+            ensureConnection();
+        }
+    }
+
+    private void ensureConnection() throws SQLException {
+        if (connection != null && connection.isValid(2)) return;
+        closeConnection();
+        Connection c = user == null ? DriverManager.getConnection(url) : DriverManager.getConnection(url, user, pass);
+        try {
+            if (dialect == Dialect.MYSQL) createTablesMySQL(c);
+            else {
+                applySqlitePragmas(c, false);
+                createTablesSQLite(c);
+            }
+        } catch (SQLException | RuntimeException e){
+            // schema not usable (e.g. a failed migration): do not hand out the connection
+            logger.severe("Veritabanı tabloları hazırlanamadı: " + e.getMessage());
+            try { c.close(); } catch (SQLException ignored) {}
+            throw e;
+        }
+        connection = c;
+    }
+
+    private void applySqlitePragmas(Connection c, boolean readOnly) throws SQLException {
+        try (Statement st = c.createStatement()){
+            if (sqliteBusyMs > 0) st.execute("PRAGMA busy_timeout = " + sqliteBusyMs);
+            if (!readOnly && sqliteWal){
+                st.execute("PRAGMA journal_mode = WAL");
+                // WAL + NORMAL: durable across app crashes, fsync only at checkpoints
+                st.execute("PRAGMA synchronous = NORMAL");
+            }
+            if (sqliteCacheKb > 0) st.execute("PRAGMA cache_size = -" + sqliteCacheKb);
+            if (sqliteMmapMb > 0) st.execute("PRAGMA mmap_size = " + sqliteMmapMb * 1024L * 1024L);
+            if (readOnly) st.execute("PRAGMA query_only = ON");
+        }
+    }
+
+    <T> T read(SqlWork<T> work) throws SQLException {
+        if (idleReaders == null) return run(work);
+        Slot slot;
+        try {
+            slot = idleReaders.poll(Math.max(1000, sqliteBusyMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new SQLException("Okuyucu bağlantı beklenirken kesildi");
+        }
+        if (slot == null) throw new SQLException("Boşta okuyucu bağlantı yok");
+        try {
+            if (slot.connection == null || slot.connection.isClosed()){
+                closeSlot(slot);
+                Connection c = DriverManager.getConnection(url);
+                applySqlitePragmas(c, true);
+                slot.connection = c;
+            }
+            return work.run(slot.connection);
+        } finally {
+            idleReaders.add(slot);
+        }
+    }
+
+    <T> T write(SqlWork<T> work) throws SQLException {
+        return run(work);
+    }
+
+    // Same as write() but inside one transaction. Called inside another transaction it just
+    // joins it, so the outer one still commits or rolls back as a unit.
+    <T> T transaction(SqlWork<T> work) throws SQLException {
+        return run(c -> {
+            if (!c.getAutoCommit()) return work.run(c);
+            c.setAutoCommit(false);
+            try {
+                T result = work.run(c);
+                c.commit();
+                return result;
+            } catch (SQLException | RuntimeException e){
+                try { c.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        });
+    }
+
+    private <T> T run(SqlWork<T> work) throws SQLException {
+        synchronized (lock){
+            if (connection == null) throw new SQLException("Veritabanı bağlantısı yok", "08003");
+            return work.run(connection);
+        }
+    }
+
+    // True for errors meaning the database is unreachable (SQLState class 08, SQLite busy /
+    // I/O / cannot open), as opposed to errors caused by the statement or its data.
+    static boolean isConnectionError(SQLException e){
+        for (Throwable t = e; t != null; t = t.getCause()){
+            if (t instanceof SQLTransientConnectionException || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLRecoverableException) return true;
+            if (!(t instanceof SQLException)) continue;
+            SQLException s = (SQLException) t;
+            if (s.getSQLState() != null && s.getSQLState().startsWith("08")) return true;
+            int code = s.getErrorCode();
+            if (s.getSQLState() == null && (code == 5 || code == 6 || code == 10 || code == 14)) return true;
+        }
+        return false;
+    }
+
+    // Cached statement for this connection; only valid inside read()/write().
+    PreparedStatement prepare(Connection c, String sql) throws SQLException {
+        Map<String, PreparedStatement> cache = statementsFor(c);
+        PreparedStatement ps = cache.get(sql);
+        if (ps == null || ps.isClosed()){
+            ps = c.prepareStatement(sql);
+            cache.put(sql, ps);
+        }
+        return ps;
+    }
+
+    PreparedStatement prepareWithKeys(Connection c, String sql) throws SQLException {
+        Map<String, PreparedStatement> cache = statementsFor(c);
+        String key = "#keys#" + sql;
+        PreparedStatement ps = cache.get(key);
+        if (ps == null || ps.isClosed()){
+            ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            cache.put(key, ps);
+        }
+        return ps;
+    }
+
+    private Map<String, PreparedStatement> statementsFor(Connection c){
+        for (Slot s : readers) if (s.connection == c) return s.statements;
+        return statements;
+    }
+
+    private static void closeSlot(Slot slot){
+        for (PreparedStatement ps : slot.statements.values()){
+            try { ps.close(); } catch (SQLException ignored) {}
+        }
+        slot.statements.clear();
+        if (slot.connection != null){
+            try { slot.connection.close(); } catch (SQLException ignored) {}
+        }
+        slot.connection = null;
+    }
+
+    private void closeConnection(){
+        for (PreparedStatement ps : statements.values()){
+            try { ps.close(); } catch (SQLException ignored) {}
+        }
+        statements.clear();
+        if (connection != null){
+            try { connection.close(); } catch (SQLException ignored) {}
+        }
+        connection = null;
+    }
+
+    void close(){
+        // wait briefly for borrowed readers to come back
+        for (int i = 0; i < readers.length; i++){
+            Slot slot = null;
+            try { slot = idleReaders.poll(2, TimeUnit.SECONDS); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+            if (slot == null) break;
+            closeSlot(slot);
+        }
+        synchronized (lock){
+            closeConnection();
+        }
+    }
+
+    private void createTablesMySQL(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()){
+            // sozluk (interned values of the coded columns, see Dictionary)
+            st.execute("CREATE TABLE IF NOT EXISTS sozluk (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "deger VARCHAR(191) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL UNIQUE" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            migrateLegacyTables(c, st);
+            // raporlar (sunucu, durum, ceza: sozluk codes)
+            st.execute("CREATE TABLE IF NOT EXISTS raporlar" + codedTableDdl("raporlar"));
+            // chatlogs
+            st.execute("CREATE TABLE IF NOT EXISTS chatlogs (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "uuid VARCHAR(36)," +
+                    "mesaj TEXT," +
+                    "zaman BIGINT" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            // chatlog_bloklari (compressed per-player chat blocks, sohbet-depolama.tur: blok)
+            st.execute("CREATE TABLE IF NOT EXISTS chatlog_bloklari (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "uuid VARCHAR(36)," +
+                    "kova BIGINT," +
+                    "ilk_zaman BIGINT," +
+                    "son_zaman BIGINT," +
+                    "adet INT," +
+                    "veri MEDIUMBLOB," +
+                    "INDEX idx_blok_uuid_kova (uuid, kova)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            // rapor_profilleri (per-target aggregates, kept in step with raporlar)
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_profilleri (" +
+                    "raporlanan VARCHAR(64) PRIMARY KEY," +
+                    "toplam INT NOT NULL DEFAULT 0," +
+                    "bekleyen INT NOT NULL DEFAULT 0," +
+                    "onaylanan INT NOT NULL DEFAULT 0," +
+                    "reddedilen INT NOT NULL DEFAULT 0," +
+                    "suresi_dolan INT NOT NULL DEFAULT 0," +
+                    "son_ceza VARCHAR(32)," +
+                    "son_sure BIGINT NOT NULL DEFAULT 0," +
+                    "son_zaman BIGINT NOT NULL DEFAULT 0" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_profil_kategorileri (" +
+                    "raporlanan VARCHAR(64)," +
+                    "kategori VARCHAR(64)," +
+                    "adet INT NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY (raporlanan, kategori)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            // rapor_hacmi (report counts per hour (olcek 1) or day (olcek 24))
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_hacmi (" +
+                    "olcek INT," +
+                    "kova BIGINT," +
+                    "sunucu VARCHAR(64)," +
+                    "kategori VARCHAR(64)," +
+                    "adet INT NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY (olcek, kova, sunucu, kategori)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            // aktif_cezalar (timed punishments until they expire or are cancelled)
+            st.execute("CREATE TABLE IF NOT EXISTS aktif_cezalar (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "rapor_id INT," +
+                    "raporlanan VARCHAR(64)," +
+                    "ceza VARCHAR(32)," +
+                    "sunucu VARCHAR(64)," +
+                    "baslangic BIGINT," +
+                    "bitis BIGINT," +
+                    "durum VARCHAR(16)," +
+                    "INDEX idx_ceza_sunucu_durum_bitis (sunucu, durum, bitis)," +
+                    "INDEX idx_ceza_raporlanan (raporlanan)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            // rapor_logs (history of actions on reports; action, yetkili, ceza: sozluk codes)
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_logs" + codedTableDdl("rapor_logs"));
+            // archive tables: resolved reports past arsiv.gun, same columns and ids as the hot tables
+            st.execute("CREATE TABLE IF NOT EXISTS raporlar_arsiv" + codedTableDdl("raporlar_arsiv"));
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_logs_arsiv" + codedTableDdl("rapor_logs_arsiv"));
+            // upgrades for tables created by older versions (fail harmlessly when already applied)
+            tryExecute(st, "ALTER TABLE raporlar ADD INDEX idx_rapor_sunucu_durum_zaman (sunucu, durum, zaman)");
+            tryExecute(st, "ALTER TABLE rapor_logs ADD INDEX idx_logs_yetkili_zaman_id (yetkili, zaman, id)");
+            tryExecute(st, "ALTER TABLE rapor_logs ADD INDEX idx_logs_rapor_id (rapor_id)");
+            tryExecute(st, "ALTER TABLE rapor_profilleri ADD COLUMN suresi_dolan INT NOT NULL DEFAULT 0");
+        }
+    }
+
+    private void createTablesSQLite(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()){
+            st.execute("CREATE TABLE IF NOT EXISTS sozluk (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "deger TEXT NOT NULL UNIQUE" +
+                    ");");
+            migrateLegacyTables(c, st);
+            st.execute("CREATE TABLE IF NOT EXISTS raporlar" + codedTableDdl("raporlar"));
+            st.execute("CREATE TABLE IF NOT EXISTS chatlogs (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "uuid TEXT," +
+                    "mesaj TEXT," +
+                    "zaman INTEGER" +
+                    ");");
+            st.execute("CREATE TABLE IF NOT EXISTS chatlog_bloklari (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "uuid TEXT," +
+                    "kova INTEGER," +
+                    "ilk_zaman INTEGER," +
+                    "son_zaman INTEGER," +
+                    "adet INTEGER," +
+                    "veri BLOB" +
+                    ");");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_blok_uuid_kova ON chatlog_bloklari (uuid, kova);");
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_profilleri (" +
+                    "raporlanan TEXT PRIMARY KEY," +
+                    "toplam INTEGER NOT NULL DEFAULT 0," +
+                    "bekleyen INTEGER NOT NULL DEFAULT 0," +
+                    "onaylanan INTEGER NOT NULL DEFAULT 0," +
+                    "reddedilen INTEGER NOT NULL DEFAULT 0," +
+                    "suresi_dolan INTEGER NOT NULL DEFAULT 0," +
+                    "son_ceza TEXT," +
+                    "son_sure INTEGER NOT NULL DEFAULT 0," +
+                    "son_zaman INTEGER NOT NULL DEFAULT 0" +
+                    ");");
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_profil_kategorileri (" +
+                    "raporlanan TEXT," +
+                    "kategori TEXT," +
+                    "adet INTEGER NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY (raporlanan, kategori)" +
+                    ");");
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_hacmi (" +
+                    "olcek INTEGER," +
+                    "kova INTEGER," +
+                    "sunucu TEXT," +
+                    "kategori TEXT," +
+                    "adet INTEGER NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY (olcek, kova, sunucu, kategori)" +
+                    ");");
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_logs" + codedTableDdl("rapor_logs"));
+            st.execute("CREATE INDEX IF NOT EXISTS idx_rapor_sunucu_durum_zaman ON raporlar (sunucu, durum, zaman);");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_logs_yetkili_zaman_id ON rapor_logs (yetkili, zaman, id);");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_logs_rapor_id ON rapor_logs (rapor_id);");
+            st.execute("CREATE TABLE IF NOT EXISTS raporlar_arsiv" + codedTableDdl("raporlar_arsiv"));
+            st.execute("CREATE INDEX IF NOT EXISTS idx_arsiv_sunucu_zaman ON raporlar_arsiv (sunucu, zaman);");
+            st.execute("CREATE TABLE IF NOT EXISTS rapor_logs_arsiv" + codedTableDdl("rapor_logs_arsiv"));
+            st.execute("CREATE INDEX IF NOT EXISTS idx_logs_arsiv_rapor_id ON rapor_logs_arsiv (rapor_id);");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_logs_arsiv_yetkili_zaman_id ON rapor_logs_arsiv (yetkili, zaman, id);");
+            st.execute("CREATE TABLE IF NOT EXISTS aktif_cezalar (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "rapor_id INTEGER," +
+                    "raporlanan TEXT," +
+                    "ceza TEXT," +
+                    "sunucu TEXT," +
+                    "baslangic INTEGER," +
+                    "bitis INTEGER," +
+                    "durum TEXT" +
+                    ");");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_ceza_sunucu_durum_bitis ON aktif_cezalar (sunucu, durum, bitis);");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_ceza_raporlanan ON aktif_cezalar (raporlanan);");
+            tryExecute(st, "ALTER TABLE rapor_profilleri ADD COLUMN suresi_dolan INTEGER NOT NULL DEFAULT 0");
+        }
+    }
+
+    // Definition (everything after the name) of a coded table; also used for the staging
+    // copy while migrating a legacy table. SQLite indexes are created separately.
+    private String codedTableDdl(String table){
+        if (dialect == Dialect.MYSQL){
+            switch (table){
+                case "raporlar": return " (" +
+                            "id INT AUTO_INCREMENT PRIMARY KEY," +
+                            "raporlayan VARCHAR(36)," +
+                            "raporlanan VARCHAR(64)," +
+                            "sunucu INT," +
+                            "zaman BIGINT," +
+                            "durum INT," +
+                            "sebep TEXT," +
+                            "ceza INT," +
+                            "sure BIGINT," +
+                            "onaylayan VARCHAR(36)," +
+                            "onay_zaman BIGINT" +
+                        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+                case "rapor_logs": return " (" +
+                            "id INT AUTO_INCREMENT PRIMARY KEY," +
+                            "rapor_id INT," +
+                            "action INT," +
+                            "yetkili INT," +
+                            "sebep TEXT," +
+                            "sure BIGINT," +
+                            "ceza INT," +
+                            "zaman BIGINT" +
+                        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+                case "raporlar_arsiv": return " (" +
+                            "id INT PRIMARY KEY," +
+                            "raporlayan VARCHAR(36)," +
+                            "raporlanan VARCHAR(64)," +
+                            "sunucu INT," +
+                            "zaman BIGINT," +
+                            "durum INT," +
+                            "sebep TEXT," +
+                            "ceza INT," +
+                            "sure BIGINT," +
+                            "onaylayan VARCHAR(36)," +
+                            "onay_zaman BIGINT," +
+                            "INDEX idx_arsiv_sunucu_zaman (sunucu, zaman)" +
+                        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+                case "rapor_logs_arsiv": return " (" +
+                            "id INT PRIMARY KEY," +
+                            "rapor_id INT," +
+                            "action INT," +
+                            "yetkili INT," +
+                            "sebep TEXT," +
+                            "sure BIGINT," +
+                            "ceza INT," +
+                            "zaman BIGINT," +
+                            "INDEX idx_logs_arsiv_rapor_id (rapor_id)," +
+                            "INDEX idx_logs_arsiv_yetkili_zaman_id (yetkili, zaman, id)" +
+                        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+            }
+        } else {
+            switch (table){
+                case "raporlar": return " (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "raporlayan TEXT," +
+                            "raporlanan TEXT," +
+                            "sunucu INTEGER," +
+                            "zaman INTEGER," +
+                            "durum INTEGER," +
+                            "sebep TEXT," +
+                            "ceza INTEGER," +
+                            "sure INTEGER," +
+                            "onaylayan TEXT," +
+                            "onay_zaman INTEGER" +
+                        ")";
+                case "rapor_logs": return " (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "rapor_id INTEGER," +
+                            "action INTEGER," +
+                            "yetkili INTEGER," +
+                            "sebep TEXT," +
+                            "sure INTEGER," +
+                            "ceza INTEGER," +
+                            "zaman INTEGER" +
+                        ")";
+                case "raporlar_arsiv": return " (" +
+                            "id INTEGER PRIMARY KEY," +
+                            "raporlayan TEXT," +
+                            "raporlanan TEXT," +
+                            "sunucu INTEGER," +
+                            "zaman INTEGER," +
+                            "durum INTEGER," +
+                            "sebep TEXT," +
+                            "ceza INTEGER," +
+                            "sure INTEGER," +
+                            "onaylayan TEXT," +
+                            "onay_zaman INTEGER" +
+                        ")";
+                case "rapor_logs_arsiv": return " (" +
+                            "id INTEGER PRIMARY KEY," +
+                            "rapor_id INTEGER," +
+                            "action INTEGER," +
+                            "yetkili INTEGER," +
+                            "sebep TEXT," +
+                            "sure INTEGER," +
+                            "ceza INTEGER," +
+                            "zaman INTEGER" +
+                        ")";
+            }
+        }
+        throw new IllegalArgumentException(table);
+    }
+
+    // Tables whose low-cardinality columns hold sozluk codes: name, all columns, coded columns.
+    private static final String REPORT_COLUMNS = "id, raporlayan, raporlanan, sunucu, zaman, durum, sebep, ceza, sure, onaylayan, onay_zaman";
+    private static final String LOG_COLUMNS = "id, rapor_id, action, yetkili, sebep, sure, ceza, zaman";
+    private static final String[][] CODED_TABLES = {
+            {"raporlar", REPORT_COLUMNS, "sunucu,durum,ceza"},
+            {"raporlar_arsiv", REPORT_COLUMNS, "sunucu,durum,ceza"},
+            {"rapor_logs", LOG_COLUMNS, "action,yetkili,ceza"},
+            {"rapor_logs_arsiv", LOG_COLUMNS, "action,yetkili,ceza"}};
+    private static final int MIGRATION_BATCH = 10000; // ids per copy statement
+
+    // Tables created by older versions still store those columns as text. Each one is copied
+    // (ids kept) into a coded staging table <table>_yeni, in id batches inside one transaction,
+    // and only after that commits is the staging table swapped in and the old one dropped.
+    // Any failure leaves the old table untouched and is thrown, which aborts the connect.
+    private void migrateLegacyTables(Connection c, Statement st) throws SQLException {
+        boolean mysql = dialect == Dialect.MYSQL;
+        String ignore = mysql ? "INSERT IGNORE" : "INSERT OR IGNORE";
+        String collate = mysql ? " COLLATE utf8mb4_bin" : ""; // case-sensitive like sozluk.deger
+        for (String[] t : CODED_TABLES){
+            String table = t[0];
+            List<String> coded = Arrays.asList(t[2].split(","));
+            boolean legacy = isTextColumn(c, table, coded.get(0));
+            // MySQL: swapped in by a run that stopped before dropping the old table
+            if (!legacy && tableExists(c, table + "_eski")) st.execute("DROP TABLE " + table + "_eski");
+            if (!legacy) continue;
+            logger.info(table + " tablosu sözlük kodlarına dönüştürülüyor...");
+            st.execute("DROP TABLE IF EXISTS " + table + "_yeni"); // left by an interrupted run
+            st.execute("CREATE TABLE " + table + "_yeni" + codedTableDdl(table));
+            StringBuilder select = new StringBuilder();
+            for (String col : t[1].split(", ")){
+                if (select.length() > 0) select.append(", ");
+                if (coded.contains(col)){
+                    select.append("COALESCE((SELECT s.id FROM sozluk s WHERE s.deger = o.").append(col).append(collate).append("), 0)");
+                } else {
+                    select.append("o.").append(col);
+                }
+            }
+            long[] rows = {0};
+            try {
+                atomically(c, () -> {
+                    for (String col : coded){
+                        st.execute(ignore + " INTO sozluk (deger) SELECT DISTINCT " + col + collate
+                                + " FROM " + table + " WHERE " + col + " IS NOT NULL");
+                    }
+                    long min, max;
+                    try (ResultSet rs = st.executeQuery("SELECT MIN(id), MAX(id) FROM " + table)){
+                        rs.next();
+                        min = rs.getLong(1);
+                        max = rs.getLong(2);
+                    }
+                    try (PreparedStatement copy = c.prepareStatement("INSERT INTO " + table + "_yeni (" + t[1] + ") SELECT "
+                            + select + " FROM " + table + " o WHERE o.id > ? AND o.id <= ?")){
+                        for (long from = min - 1; from < max; from += MIGRATION_BATCH){
+                            copy.setLong(1, from);
+                            copy.setLong(2, from + MIGRATION_BATCH);
+                            rows[0] += copy.executeUpdate();
+                        }
+                    }
+                });
+            } catch (SQLException | RuntimeException e){
+                tryExecute(st, "DROP TABLE " + table + "_yeni");
+                throw e;
+            }
+            if (mysql){
+                // DDL commits implicitly on MySQL; a multi-table RENAME is atomic
+                st.execute("RENAME TABLE " + table + " TO " + table + "_eski, " + table + "_yeni TO " + table);
+                st.execute("DROP TABLE " + table + "_eski");
+            } else {
+                // dropping the old table also drops its indexes, recreated on the new one afterwards
+                atomically(c, () -> {
+                    st.execute("DROP TABLE " + table);
+                    st.execute("ALTER TABLE " + table + "_yeni RENAME TO " + table);
+                });
+            }
+            logger.info(table + ": " + rows[0] + " satır dönüştürüldü.");
+        }
+    }
+
+    // Transaction on a connection that is not published yet (schema setup).
+    private static void atomically(Connection c, SqlStep step) throws SQLException {
+        c.setAutoCommit(false);
+        try {
+            step.run();
+            c.commit();
+        } catch (SQLException | RuntimeException e){
+            try { c.rollback(); } catch (SQLException ignored) {}
+            throw e;
+        } finally {
+            c.setAutoCommit(true);
+        }
+    }
+
+    private interface SqlStep {
+        void run() throws SQLException;
+    }
+
+    private static boolean tableExists(Connection c, String table){
+        try (Statement st = c.createStatement()){
+            st.executeQuery("SELECT 1 FROM " + table + " WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e){
+            return false;
+        }
+    }
+
+    private static boolean isTextColumn(Connection c, String table, String column){
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT " + column + " FROM " + table + " WHERE 1 = 0")){
+            return !rs.getMetaData().getColumnTypeName(1).toUpperCase().contains("INT");
+        } catch (SQLException e){
+            return false; // table not created yet
+        }
+    }
+
+    private static void tryExecute(Statement st, String sql){
+        try { st.execute(sql); } catch (SQLException ignored) {}
+    }
+}
@@ -0,0 +1,112 @@
+package me.robin.hyperrapor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interned values of the low-cardinality report / log columns (durum, sunucu, ceza, action,
+// yetkili). Those columns store the sozluk id instead of the string, so rows and composite
+// indexes carry an INT and filters compare integers. Both directions are cached; the table
+// only grows, by a handful of rows per server, staff member or punishment type.
+final class Dictionary {
+
+    static final int NONE = 0;     // SQL NULL
+    static final int UNKNOWN = -1; // never stored, so no row can match it
+
+    private static final String SQL_FIND = "SELECT id FROM sozluk WHERE deger = ?";
+    private static final String SQL_VALUE = "SELECT deger FROM sozluk WHERE id = ?";
+    private static final String SQL_FIND_IGNORE_CASE = "SELECT id FROM sozluk WHERE LOWER(deger) = LOWER(?) ORDER BY id LIMIT 1";
+
+    private final Database db;
+    private final String sqlAdd;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final Map<Integer, String> values = new ConcurrentHashMap<>();
+
+    Dictionary(Database db){
+        this.db = db;
+        this.sqlAdd = db.dialect() == Database.Dialect.MYSQL
+                ? "INSERT IGNORE INTO sozluk (deger) VALUES (?)"
+                : "INSERT OR IGNORE INTO sozluk (deger) VALUES (?)";
+    }
+
+    // Whole table into the cache (startup); misses are also filled lazily.
+    void load() throws SQLException {
+        db.read(c -> {
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT id, deger FROM sozluk")){
+                while (rs.next()) remember(rs.getInt(1), rs.getString(2));
+            }
+            return null;
+        });
+    }
+
+    // Code for a value about to be written, adding it to sozluk on first use. Best called
+    // before db.transaction(), so the new entry commits on its own; inside an open
+    // transaction it joins it and is not cached, so a rollback cannot leave a stale code.
+    int code(String value) throws SQLException {
+        if (value == null) return NONE;
+        Integer cached = codes.get(value);
+        if (cached != null) return cached;
+        return db.write(c -> {
+            PreparedStatement add = db.prepare(c, sqlAdd);
+            add.setString(1, value);
+            add.executeUpdate();
+            int id = find(c, value, c.getAutoCommit());
+            if (id == UNKNOWN) throw new SQLException("Sözlük kaydı oluşturulamadı: " + value);
+            return id;
+        });
+    }
+
+    // Code of a value used as a filter; UNKNOWN when it was never stored.
+    int lookup(Connection c, String value) throws SQLException {
+        if (value == null) return NONE;
+        Integer cached = codes.get(value);
+        return cached != null ? cached : find(c, value, c.getAutoCommit());
+    }
+
+    // lookup() for a name typed by a user: falls back to a case-insensitive match, as the
+    // text columns did under MySQL's default collation. Not cached.
+    int lookupIgnoreCase(Connection c, String value) throws SQLException {
+        int code = lookup(c, value);
+        if (code != UNKNOWN) return code;
+        PreparedStatement ps = db.prepare(c, SQL_FIND_IGNORE_CASE);
+        ps.setString(1, value);
+        try (ResultSet rs = ps.executeQuery()){
+            return rs.next() ? rs.getInt(1) : UNKNOWN;
+        }
+    }
+
+    String value(Connection c, int code) throws SQLException {
+        if (code == NONE) return null;
+        String cached = values.get(code);
+        if (cached != null) return cached;
+        PreparedStatement ps = db.prepare(c, SQL_VALUE);
+        ps.setInt(1, code);
+        try (ResultSet rs = ps.executeQuery()){
+            if (!rs.next()) return null;
+            String v = rs.getString(1);
+            if (c.getAutoCommit()) remember(code, v);
+            return v;
+        }
+    }
+
+    private int find(Connection c, String value, boolean cache) throws SQLException {
+        PreparedStatement ps = db.prepare(c, SQL_FIND);
+        ps.setString(1, value);
+        try (ResultSet rs = ps.executeQuery()){
+            if (!rs.next()) return UNKNOWN;
+            int id = rs.getInt(1);
+            if (cache) remember(id, value);
+            return id;
+        }
+    }
+
+    // the cached String is the one instance handed out for every decoded row
+    private void remember(int id, String value){
+        String v = values.putIfAbsent(id, value);
+        codes.putIfAbsent(v != null ? v : value, id);
+    }
+}
@@ -0,0 +1,49 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+// Main-thread stage of the GUI pipeline: turns queued GuiViews into inventories and opens
+// them, spending at most `budget` per tick (always at least one, so the queue drains).
+// Whatever does not fit waits for the next tick. Main thread only.
+final class GuiRenderer {
+
+    private static final class Job {
+        final Player player;
+        final GuiView view;
+        final Consumer<Inventory> opened;
+        Job(Player player, GuiView view, Consumer<Inventory> opened){ this.player = player; this.view = view; this.opened = opened; }
+    }
+
+    private final ArrayDeque<Job> queue = new ArrayDeque<>();
+    private long budgetNanos;
+
+    GuiRenderer(double budgetMillis){
+        setBudget(budgetMillis);
+    }
+
+    void setBudget(double budgetMillis){
+        budgetNanos = Math.max(50_000L, (long) (budgetMillis * 1_000_000L));
+    }
+
+    // opened (may be null) runs right after the inventory is shown
+    void open(Player player, GuiView view, Consumer<Inventory> opened){
+        queue.add(new Job(player, view, opened));
+    }
+
+    void tick(){
+        long start = System.nanoTime();
+        long spent = 0;
+        Job job;
+        while (spent < budgetNanos && (job = queue.poll()) != null){
+            if (!job.player.isOnline()) continue;
+            Inventory inv = job.view.materialize();
+            job.player.openInventory(inv);
+            if (job.opened != null) job.opened.accept(inv);
+            spent = System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.Inventory;
+
+// Immutable inventory layout: title, size and an ItemView per slot. Assembled off the
+// main thread; materialize() is the only main-thread step.
+final class GuiView {
+    final String title;
+    final int size;
+    final int contentCount; // data rows shown (controls excluded), for paging decisions
+    private final ItemView[] slots;
+
+    GuiView(String title, int size, ItemView[] slots, int contentCount){
+        this.title = title;
+        this.size = size;
+        this.slots = slots.clone();
+        this.contentCount = contentCount;
+    }
+
+    // main thread only
+    Inventory materialize(){
+        Inventory inv = Bukkit.createInventory(null, size, title);
+        for (int i = 0; i < slots.length && i < size; i++){
+            if (slots[i] != null) inv.setItem(i, slots[i].toItem());
+        }
+        return inv;
+    }
+}
@@ -2,37 +2,56 @@ package me.robin.hyperrapor;
 
 import org.bukkit.*;
 import org.bukkit.command.*;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.*;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.*;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.sql.*;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor {
+public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor, TabCompleter {
 
     // --- DB ---
-    private Connection connection;
+    private Database database;
+    private ReportRepository reports;
+    private ReportVolume volume;
+    private volatile boolean dbDown; // set on write failure, cleared once the journal is drained
+    private long reconnectDelayMs;   // replay backoff, async replay task only
+    private long nextReconnectAt;
+
+    // --- Startup gate: DB connect + warm-up run async; commands before that are deferred ---
+    private volatile boolean ready;
+    private final Deque<Runnable> startupQueue = new ArrayDeque<>(); // main thread only
+    private static final int STARTUP_QUEUE_MAX = 64;
+    private WriteAheadJournal journal;
     private boolean mysqlEnabled;
-    private boolean sqliteMode;
+    private volatile boolean warmedUp;     // dictionary + profile backfill done (first successful connect)
+    private volatile boolean queuesLoaded; // pending queue + punishment window loaded (first time the DB is usable)
 
-    // --- Config & Messages ---
-    private YamlConfiguration messages;
-    private String serverName;
-    private int dailyLimit;
-    private int cooldownMinutes;
-    private int messagesToShow;
-    private List<String> approvalCommands;
-    private String adminPermission;
+    // --- Config & Messages (replaced as a whole by /raporlar reload) ---
+    private volatile Settings settings;
 
     // --- Runtime state ---
     private Map<UUID, Integer> dailyReports = new HashMap<>();
@@ -48,23 +67,104 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         String ceza; // ceza türü (susturma/ban/uzaklaştırma)
         PendingAction(PendingType t){ this.type = t; }
     }
-    private Map<UUID, PendingAction> pending = new HashMap<>();
+    // read from async chat threads, written from main thread -> concurrent
+    private Map<UUID, PendingAction> pending = new ConcurrentHashMap<>();
+
+    // --- Chat logging (lock-free ring, drained by one async task) ---
+    private ChatRingBuffer chatBuffer;
+    private final AtomicBoolean chatDraining = new AtomicBoolean(false);
+    private int chatFlushTicks;
+    private int chatBatchSize;
+    // consumer-owned batch arrays (reused every drain)
+    private UUID[] chatBatchUuid;
+    private String[] chatBatchMesaj;
+    private long[] chatBatchZaman;
+    private int chatBatchCount;
+    private ChatBlockStore chatBlocks; // null = classic one-row-per-message chatlogs
+
+    // --- Pending queue + live admin views ---
+    private final PendingQueue pendingQueue = new PendingQueue();
+    private static class AdminView {
+        final Inventory inv;
+        final int page;
+        final int[] slotIds = new int[45]; // report id shown in each slot, 0 = empty
+        AdminView(Inventory inv, int page){ this.inv = inv; this.page = page; }
+    }
+    private final Map<UUID, AdminView> adminViews = new HashMap<>(); // main thread only
+    private volatile boolean adminViewsDirty;
+
+    // --- Per-staff audit view over rapor_logs (seek pagination, main thread only) ---
+    private static class AuditView {
+        final String yetkili;
+        final String action; // null = all actions
+        final long from;
+        final Deque<long[]> earlier = new ArrayDeque<>(); // start cursors of the pages before this one
+        long[] cursor = {Long.MAX_VALUE, 0}; // (zaman, id) this page starts after
+        long[] nextCursor; // last row on screen, null = no next page
+        int page;
+        Inventory inv;
+        final int[] slotIds = new int[45]; // report id shown in each slot, 0 = none
+        AuditView(String yetkili, String action, long from){ this.yetkili = yetkili; this.action = action; this.from = from; }
+    }
+    private final Map<UUID, AuditView> auditViews = new HashMap<>();
+    private static final int AUDIT_PAGE_SIZE = 45;
+
+    // --- Per-staff history view: the page lives here, the title only displays it (main thread only) ---
+    private static class HistoryView {
+        final Inventory inv;
+        final int page;
+        final boolean hasNext;
+        HistoryView(Inventory inv, int page, boolean hasNext){ this.inv = inv; this.page = page; this.hasNext = hasNext; }
+    }
+    private final Map<UUID, HistoryView> historyViews = new HashMap<>();
+
+    // --- Per-staff report detail view: which report the open inventory shows (main thread only) ---
+    private static class DetailView {
+        final Inventory inv;
+        final int reportId;
+        DetailView(Inventory inv, int reportId){ this.inv = inv; this.reportId = reportId; }
+    }
+    private final Map<UUID, DetailView> detailViews = new HashMap<>();
+
+    // --- Interval timers; /raporlar reload restarts the ones whose period changed (main thread only) ---
+    private static final class Timer {
+        final BukkitTask task;
+        final long period;
+        Timer(BukkitTask task, long period){ this.task = task; this.period = period; }
+    }
+    private final Map<String, Timer> timers = new HashMap<>();
 
-    // GUI constants (titles are loaded from messages when available)
-    private String guiReportTitle;
-    private String guiAdminTitle;
-    private String guiDetailTitle;
-    private String guiDetailApprove;
-    private String guiDetailReject;
-    private String guiDetailApproveLore;
-    private String guiDetailRejectLore;
-    private String guiHistoryTitle;
-    private String guiStatsTitle;
+    // recently viewed / prefetched history pages and report details, already laid out
+    private TtlCache<Integer, GuiView> historyCache;
+    private TtlCache<Integer, GuiView> detailCache;
 
-    // categories (default; messages.yml override possible)
-    private List<String> categories;
+    // GUI pipeline: views are formatted off the main thread, the renderer only builds
+    // ItemStacks and opens them within a per-tick budget
+    private GuiRenderer guiRenderer; // main thread only
+
+    // console commands from approvals / punishment expiry, run under a per-tick budget
+    private CommandDispatcher commands;
+    // admin list items of pending reports, formatted when the report enters the queue
+    private final Map<Integer, ItemView> pendingItems = new ConcurrentHashMap<>();
+    private final Object pendingSyncLock = new Object(); // one reloadPendingQueue at a time
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // --- Staff notifications ---
+    private StaffRegistry staff;
+    private final ReportDigest reportDigest = new ReportDigest();
+
+    // online + recently seen names for /rapor completion and validation (main thread only)
+    private PlayerNameIndex names;
+    private static final int TAB_COMPLETE_MAX = 50;
+
+    // --- Timed punishments: only those ending before punishmentWindowEnd are in the wheel ---
+    private TimingWheel punishmentWheel; // main thread only
+    private volatile long punishmentWindowEnd; // rows with bitis below this are loaded (or loading)
+    private long punishmentLoadedUntil; // punishment loader thread only
+    private final AtomicBoolean punishmentsLoading = new AtomicBoolean(false);
 
     private final int ADMIN_GUI_SIZE = 54; // as requested (6 rows)
+    private final int CHAT_DRAIN_MAX = 4096; // max lines per drain run
 
     @Override
     public void onEnable(){
@@ -86,18 +186,111 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
             saveResource("config.yml", false);
         }
 
-        messages = YamlConfiguration.loadConfiguration(new File(getDataFolder(), "messages.yml"));
-        reloadConfig(); // load config.yml
-        loadSettings();
+        try {
+            settings = Settings.load(getDataFolder());
+        } catch (Exception e){
+            getLogger().severe("Ayar dosyaları okunamadı, eklenti kapatılıyor: " + e.getMessage());
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        loadStartupSettings();
+
+        // chat ring must exist before the chat listener is registered
+        chatBuffer = new ChatRingBuffer(settings.config.getInt("sohbet-tamponu.boyut", 8192));
+        chatBatchUuid = new UUID[chatBatchSize];
+        historyCache = new TtlCache<>(1, 0);
+        detailCache = new TtlCache<>(1, 0);
+        configureCaches(settings);
+        guiRenderer = new GuiRenderer(settings.config.getDouble("arayuz.tick-butce-ms", 2.0));
+        commands = new CommandDispatcher(getServer(), getLogger(), (uuid, cmd) -> {
+            Player staffMember = Bukkit.getPlayer(uuid);
+            if (staffMember != null){
+                staffMember.sendMessage(getMsg("messages.command_failed", "&cCeza komutu çalıştırılamadı: &e/{komut}").replace("{komut}", cmd));
+            }
+        });
+        configureCommands(settings);
+        chatBatchMesaj = new String[chatBatchSize];
+        chatBatchZaman = new long[chatBatchSize];
+        if ("blok".equalsIgnoreCase(settings.config.getString("sohbet-depolama.tur", "satir"))){
+            chatBlocks = new ChatBlockStore(
+                    settings.config.getInt("sohbet-depolama.blok-dakika", 5),
+                    settings.config.getInt("sohbet-depolama.blok-max-mesaj", 500),
+                    settings.config.getInt("sohbet-depolama.max-bekleme-saniye", 60));
+        }
 
         getCommand("rapor").setExecutor(this);
         getCommand("raporlar").setExecutor(this);
+        getCommand("rapor").setTabCompleter(this);
+        getCommand("raporlar").setTabCompleter(this);
+        names = new PlayerNameIndex(settings.config.getInt("tamamlama.son-gorulen", 500));
+        for (Player op : Bukkit.getOnlinePlayers()) names.join(op.getName());
 
         // register events
         getServer().getPluginManager().registerEvents(this, this);
 
-        // setup DB
+        // local journal for writes made while the DB is unreachable
+        try {
+            journal = new WriteAheadJournal(new File(getDataFolder(), "journal"),
+                    settings.config.getInt("gunluk.segment-kb", 4096) * 1024,
+                    settings.config.getLong("gunluk.max-mb", 256L) * 1024L * 1024L);
+        } catch (IOException e){
+            getLogger().severe("Günlük dosyası açılamadı: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        // setup DB: objects now, connection + migrations + warm-up off the main thread
+        dbDown = true; // until startup finishes
         setupDatabase();
+        final long firstDelay = Math.max(100, settings.config.getLong("baslangic.ilk-bekleme-ms", 1000));
+        runAsync(() -> startDatabase(1, firstDelay));
+
+        // replays journaled writes once the DB is reachable again
+        long replayTicks = Math.max(1, settings.config.getInt("gunluk.deneme-saniye", 5)) * 20L;
+        new BukkitRunnable(){
+            @Override
+            public void run(){
+                replayJournal();
+            }
+        }.runTaskTimerAsynchronously(this, replayTicks, replayTicks);
+
+        // every tick: live admin view changes, queued console commands, queued GUIs
+        new BukkitRunnable(){
+            @Override
+            public void run(){
+                refreshAdminViews();
+                commands.tick();
+                guiRenderer.tick();
+            }
+        }.runTaskTimer(this, 1L, 1L);
+
+        // staff registry (recheck + digest run from scheduleTimers)
+        staff = new StaffRegistry(settings.adminPermission);
+        staff.recheck(Bukkit.getOnlinePlayers());
+
+        // report volume: old hours are folded into days hourly (flushing is in scheduleTimers)
+        new BukkitRunnable(){
+            @Override
+            public void run(){
+                if (dbDown) return;
+                try {
+                    volume.downsample(settings.serverName, settings.config.getInt("rapor-hacmi.saatlik-gun", 30), System.currentTimeMillis());
+                } catch (Exception e){
+                    getLogger().warning("Rapor hacmi günlüğe indirgenemedi: " + e.getMessage());
+                }
+            }
+        }.runTaskTimerAsynchronously(this, 20L*60, 20L*60*60);
+
+        // timed punishments: wheel ticks every second, next window is read ahead at half-window (scheduleTimers)
+        punishmentWheel = new TimingWheel(settings.config.getInt("ceza-bitis.dilim", 1024), 1000L, System.currentTimeMillis());
+        new BukkitRunnable(){
+            @Override
+            public void run(){
+                firePunishments();
+            }
+        }.runTaskTimer(this, 20L, 20L);
+
+        // resync, notifications, volume flush, expiry, archive, punishment window
+        scheduleTimers(settings);
 
         // daily reset task (runs every 24 hours)
         new BukkitRunnable(){
@@ -107,163 +300,621 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
             }
         }.runTaskTimerAsynchronously(this, 20L*60*60*0, 20L*60*60*24); // start immediate, every 24h
 
+        // chat log consumer
+        new BukkitRunnable(){
+            @Override
+            public void run(){
+                drainChatBuffer();
+            }
+        }.runTaskTimerAsynchronously(this, chatFlushTicks, chatFlushTicks);
+
         getLogger().info("HyperRapor yüklendi.");
     }
 
+    public HyperRapor(){
+    }
+
+    // test-only: the headless LoadTest harness (src/test, mvn -P yuk-testi verify) runs the
+    // plugin outside a PluginClassLoader
+    @SuppressWarnings("deprecation")
+    HyperRapor(Server server, PluginDescriptionFile description, File dataFolder){
+        super(null, server, description, dataFolder, null);
+    }
+
     @Override
     public void onDisable(){
+        // punishments already decided still apply
+        if (commands != null) commands.flush();
+        // flush whatever chat is still buffered before the connection goes away
+        if (chatBuffer != null){
+            while (!chatDraining.compareAndSet(false, true)) Thread.yield();
+            try {
+                while (!chatBuffer.isEmpty()) drainChatBufferLocked();
+                if (chatBlocks != null) flushChatBlocks(true);
+            } finally {
+                chatDraining.set(false);
+            }
+        }
+        if (volume != null) flushVolume();
+        if (journal != null) journal.close();
+        if (database != null) database.close();
+    }
+
+    private void flushVolume(){
+        if (dbDown) return;
         try {
-            if (connection != null && !connection.isClosed()) connection.close();
-        } catch (Exception ignored) {}
-    }
-
-    private void loadSettings(){
-        // config.yml keys expected:
-        // server-name, limits.daily, limits.cooldownMinutes, messagesToShow, mysql.enabled etc
-        mysqlEnabled = getConfig().getBoolean("mysql.enabled", false);
-        serverName = getConfig().getString("server-name", "Sunucu");
-        dailyLimit = getConfig().getInt("limits.dailyReports", 5);
-        cooldownMinutes = getConfig().getInt("limits.cooldownMinutes", 10);
-        messagesToShow = getConfig().getInt("messagesToShow", 5);
-        approvalCommands = getConfig().getStringList("onay-komutlari");
-        adminPermission = getConfig().getString("admin-permission", "hyperrapor.staff");
-
-        // messages
-        guiReportTitle = getMsg("gui.report.title", "&cRapor Kategorisi Seç");
-        guiAdminTitle = getMsg("gui.admin.title", "&cBekleyen Raporlar - Sayfa");
-        guiDetailTitle = getMsg("gui.detail.title", "&6Rapor Detayı #");
-        guiDetailApprove = getMsg("gui.detail.approve", "✔ Onayla");
-        guiDetailReject = getMsg("gui.detail.reject", "✖ Reddet");
-        guiDetailApproveLore = getMsg("gui.detail.approve.lore", "Raporu onaylamak için tıklayın.");
-        guiDetailRejectLore = getMsg("gui.detail.reject.lore", "Raporu reddetmek için tıklayın.");
-        guiHistoryTitle = getMsg("gui.history.title", "&6Geçmiş Raporlar - Sayfa %page%");
-        guiStatsTitle = getMsg("gui.stats.title", "&eRapor İstatistikleri");
-
-        // categories (from messages.yml or default)
-        if (messages.contains("categories") && messages.getConfigurationSection("categories") != null) {
-            List<String> c = messages.getStringList("categories.list");
-            if (c != null && !c.isEmpty()) categories = c;
-            else categories = Arrays.asList("Küfür/Hakaret", "Hile", "Spam/Flood", "Reklam", "Diğer");
-        } else {
-            categories = Arrays.asList("Küfür/Hakaret", "Hile", "Spam/Flood", "Reklam", "Diğer");
+            volume.flush();
+        } catch (Exception e){
+            getLogger().warning("Rapor hacmi yazılamadı: " + e.getMessage());
+        }
+    }
+
+    // main thread: swap the snapshot, then rebuild what was derived from the old one
+    private void applySettings(Settings next){
+        Settings old = settings;
+        settings = next;
+        reports.setCategories(next.categories);
+        staff.setPermission(next.adminPermission);
+        staff.recheck(Bukkit.getOnlinePlayers());
+        configureCaches(next);
+        names.setMaxRecent(next.config.getInt("tamamlama.son-gorulen", 500));
+        guiRenderer.setBudget(next.config.getDouble("arayuz.tick-butce-ms", 2.0));
+        configureCommands(next);
+        scheduleTimers(next);
+        // admin items are re-formatted off the main thread; the old ones show until then
+        if (!old.serverName.equals(next.serverName)) runAsync(this::reloadPendingQueue);
+        else runAsync(this::rebuildPendingItems);
+        for (String key : new String[]{"mysql", "sqlite", "sohbet-tamponu", "sohbet-depolama", "gunluk", "baslangic"}){
+            if (!sectionFingerprint(old, key).equals(sectionFingerprint(next, key))){
+                getLogger().warning("'" + key + "' ayarlarındaki değişiklikler yeniden başlatınca geçerli olur.");
+            }
+        }
+        if (old.config.getInt("ceza-bitis.dilim", 1024) != next.config.getInt("ceza-bitis.dilim", 1024)){
+            getLogger().warning("'ceza-bitis.dilim' ayarındaki değişiklik yeniden başlatınca geçerli olur.");
+        }
+    }
+
+    // Config-driven interval timers; on reload only the ones whose period changed restart.
+    private void scheduleTimers(Settings s){
+        // pending queue resync for reports resolved elsewhere (shared MySQL)
+        every("bekleyen-senkron", Math.max(1, s.config.getInt("bekleyen-senkron-dakika", 5)) * 60L * 20L, true, this::reloadPendingQueue);
+        // staff registry + per-interval new report digest
+        every("yetkili-kontrol", Math.max(1, s.config.getInt("bildirim.yetkili-kontrol-saniye", 30)) * 20L, false,
+                () -> staff.recheck(Bukkit.getOnlinePlayers()));
+        every("rapor-ozeti", Math.max(1, s.config.getInt("bildirim.ozet-saniye", 5)) * 20L, false, this::sendReportDigest);
+        // report volume buckets
+        every("rapor-hacmi", Math.max(1, s.config.getInt("rapor-hacmi.yazma-saniye", 60)) * 20L, true, this::flushVolume);
+        // stale pending report expiry
+        every("bekleyen-omru", Math.max(1, s.config.getInt("bekleyen-omru.aralik-saniye", 60)) * 20L, true, this::expireStalePending);
+        // resolved report archiving, a few bounded batches per run
+        every("arsiv", Math.max(1, s.config.getInt("arsiv.aralik-dakika", 10)) * 60L * 20L, true, this::archiveResolved);
+        // next punishment window is read ahead at half-window
+        every("ceza-penceresi", Math.max(1, punishmentWindowMillis() / 2 / 50), true, this::loadPunishmentWindow);
+    }
+
+    private void every(String name, long periodTicks, boolean async, Runnable task){
+        Timer old = timers.get(name);
+        if (old != null){
+            if (old.period == periodTicks) return;
+            old.task.cancel();
+        }
+        BukkitTask t = async
+                ? getServer().getScheduler().runTaskTimerAsynchronously(this, task, periodTicks, periodTicks)
+                : getServer().getScheduler().runTaskTimer(this, task, periodTicks, periodTicks);
+        timers.put(name, new Timer(t, periodTicks));
+    }
+
+    // also empties both caches
+    private void configureCaches(Settings s){
+        long ttl = s.config.getInt("sayfa-onbellek.sure-saniye", 30) * 1000L;
+        int size = Math.max(1, s.config.getInt("sayfa-onbellek.boyut", 64));
+        historyCache.resize(size, ttl);
+        detailCache.resize(size, ttl);
+    }
+
+    private void configureCommands(Settings s){
+        commands.configure(
+                s.config.getInt("komut-kuyrugu.tick-max", 5),
+                s.config.getDouble("komut-kuyrugu.tick-butce-ms", 5.0),
+                s.config.getInt("komut-kuyrugu.tekrar-saniye", 10));
+    }
+
+    private static String sectionFingerprint(Settings s, String key){
+        ConfigurationSection sec = s.config.getConfigurationSection(key);
+        if (sec == null) return "";
+        // leaves compare by value; nested sections only by path
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> e : new TreeMap<>(sec.getValues(true)).entrySet()){
+            if (e.getValue() instanceof ConfigurationSection) continue;
+            sb.append(e.getKey()).append('=').append(e.getValue()).append(';');
         }
+        return sb.toString();
+    }
+
+    // Settings that size buffers, timers or the DB connection; these only change on restart.
+    private void loadStartupSettings(){
+        mysqlEnabled = settings.config.getBoolean("mysql.enabled", false);
+        chatFlushTicks = Math.max(1, settings.config.getInt("sohbet-tamponu.bosaltma-tick", 10));
+        chatBatchSize = Math.max(1, settings.config.getInt("sohbet-tamponu.toplu-yazma", 500));
     }
 
     private String getMsg(String path, String def){
-        if (messages == null) return ChatColor.translateAlternateColorCodes('&', def);
-        String s = messages.getString(path, def);
-        return ChatColor.translateAlternateColorCodes('&', s);
+        return settings.msg(path, def);
     }
 
     // --------- Database setup ----------
     private void setupDatabase(){
+        if (mysqlEnabled){
+            // load mysql connection info
+            String host = settings.config.getString("mysql.host", "localhost");
+            int port = settings.config.getInt("mysql.port", 3306);
+            String db = settings.config.getString("mysql.database", "hyperrapor");
+            String user = settings.config.getString("mysql.user", "root");
+            String pass = settings.config.getString("mysql.password", "");
+            // MySQL driver used by server
+            database = new Database(Database.Dialect.MYSQL,
+                    "jdbc:mysql://" + host + ":" + port + "/" + db + "?autoReconnect=true&useSSL=false", "" + user, "" + pass, getLogger());
+        } else {
+            File dbFile = new File(getDataFolder(), "database.db");
+            database = new Database(Database.Dialect.SQLITE, "jdbc:sqlite:" + dbFile.getAbsolutePath(), null, null, getLogger());
+            applySqliteSettings(database);
+        }
+        reports = new ReportRepository(database);
+        reports.setCategories(settings.categories);
+        volume = new ReportVolume(database);
+    }
+
+    // async: connect with exponential backoff, then migrate and warm caches. After the last
+    // failed attempt the plugin still becomes ready in journal mode; replayJournal keeps retrying.
+    private void startDatabase(int attempt, long delayMs){
+        if (!isEnabled()) return;
+        int maxAttempts = Math.max(1, settings.config.getInt("baslangic.deneme", 5));
+        long maxDelayMs = Math.max(1, settings.config.getInt("baslangic.max-bekleme-saniye", 30)) * 1000L;
         try {
-            if (mysqlEnabled){
-                // load mysql connection info
-                String host = getConfig().getString("mysql.host", "localhost");
-                int port = getConfig().getInt("mysql.port", 3306);
-                String db = getConfig().getString("mysql.database", "hyperrapor");
-                String user = getConfig().getString("mysql.user", "root");
-                String pass = getConfig().getString("mysql.password", "");
-                // MySQL driver used by server
-                connection = DriverManager.getConnection("jdbc:mysql://" + host + ":" + port + "/" + db + "?autoReconnect=true&useSSL=false","" + user, "" + pass);
-                sqliteMode = false;
-                createTablesMySQL();
-            } else {
-                File dbFile = new File(getDataFolder(), "database.db");
-                String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-                connection = DriverManager.getConnection(url);
-                sqliteMode = true;
-                createTablesSQLite();
+            database.connect();
+        } catch (Exception e){
+            if (attempt < maxAttempts){
+                getLogger().warning("Veritabanına bağlanılamadı (deneme " + attempt + "/" + maxAttempts + "): "
+                        + e.getMessage() + " - " + (delayMs / 1000.0) + " sn sonra tekrar denenecek.");
+                getServer().getScheduler().runTaskLaterAsynchronously(this,
+                        () -> startDatabase(attempt + 1, Math.min(delayMs * 2, maxDelayMs)), Math.max(1, delayMs / 50));
+                return;
             }
-            getLogger().info("Veritabanı başarıyla bağlandı. (MySQL=" + mysqlEnabled + ", SQLite=" + sqliteMode + ")");
+            getLogger().severe("Veritabanı bağlantı hatası: " + e.getMessage() + " - raporlar yerel günlüğe yazılacak.");
+            finishStartup(false);
+            return;
+        }
+        getLogger().info("Veritabanı başarıyla bağlandı. (MySQL=" + mysqlEnabled + ", SQLite=" + !mysqlEnabled + ")");
+        warmUp();
+        finishStartup(true);
+    }
+
+    private void finishStartup(boolean connected){
+        if (journal == null) dbDown = !connected;
+        else synchronized (journal){
+            // chat may have been journaled during startup (see journalIfDown)
+            dbDown = !connected || journal.hasPending();
+        }
+        if (!dbDown) loadQueues();
+        runSync(() -> {
+            ready = true;
+            getLogger().info("HyperRapor hazır.");
+            Runnable r;
+            while ((r = startupQueue.poll()) != null) r.run();
+        });
+    }
+
+    // Runs once, right after the first successful connect (at startup or from replayJournal),
+    // before anything new is written.
+    private void warmUp(){
+        if (warmedUp) return;
+        warmedUp = true;
+        try {
+            reports.loadDictionary();
         } catch (Exception e){
-            getLogger().severe("Veritabanı bağlantı hatası: " + e.getMessage());
+            getLogger().warning("Sözlük önbelleği yüklenemedi: " + e.getMessage());
+        }
+        try {
+            // before any new report, otherwise the empty-table check would skip old ones
+            int profiles = reports.backfillProfiles();
+            if (profiles > 0) getLogger().info(profiles + " oyuncu için rapor profili oluşturuldu.");
+        } catch (Exception e){
+            getLogger().severe("Rapor profilleri oluşturulamadı: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private void createTablesMySQL(){
+    // the first time the DB is usable (connected, journal drained)
+    private void loadQueues(){
+        queuesLoaded = true;
+        reloadPendingQueue();
+        loadPunishmentWindow();
+    }
+
+    // Commands issued before startup finished run once it has (bounded), or are turned away.
+    private void deferUntilReady(CommandSender sender, Runnable action){
+        if (startupQueue.size() >= STARTUP_QUEUE_MAX){
+            sender.sendMessage(getMsg("messages.starting", "&eHyperRapor başlatılıyor, lütfen birazdan tekrar deneyin."));
+            return;
+        }
+        startupQueue.add(() -> {
+            if (sender instanceof Player && !((Player) sender).isOnline()) return;
+            action.run();
+        });
+        sender.sendMessage(getMsg("messages.starting_queued", "&eHyperRapor başlatılıyor, komutunuz hazır olunca çalıştırılacak."));
+    }
+
+    // Moves reports resolved more than arsiv.gun ago into the archive tables. History and detail
+    // read through, so views stay the same and the caches need no reset.
+    private void archiveResolved(){
+        int days = settings.config.getInt("arsiv.gun", 30);
+        if (days <= 0 || dbDown) return;
+        int batch = Math.max(1, settings.config.getInt("arsiv.parti", 200));
+        int maxBatches = Math.max(1, settings.config.getInt("arsiv.max-parti", 5));
+        long cutoff = System.currentTimeMillis() - days * 24L * 60 * 60 * 1000;
+        int total = 0;
         try {
-            Statement st = connection.createStatement();
-            // raporlar
-            st.execute("CREATE TABLE IF NOT EXISTS raporlar (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY," +
-                    "raporlayan VARCHAR(36)," +
-                    "raporlanan VARCHAR(64)," +
-                    "sunucu VARCHAR(64)," +
-                    "zaman BIGINT," +
-                    "durum VARCHAR(16)," +
-                    "sebep TEXT," +
-                    "ceza VARCHAR(32)," +
-                    "sure BIGINT," +
-                    "onaylayan VARCHAR(36)," +
-                    "onay_zaman BIGINT" +
-                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
-            // chatlogs
-            st.execute("CREATE TABLE IF NOT EXISTS chatlogs (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY," +
-                    "uuid VARCHAR(36)," +
-                    "mesaj TEXT," +
-                    "zaman BIGINT" +
-                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
-            // rapor_logs (history of actions on reports)
-            st.execute("CREATE TABLE IF NOT EXISTS rapor_logs (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY," +
-                    "rapor_id INT," +
-                    "action VARCHAR(16)," +
-                    "yetkili VARCHAR(36)," +
-                    "sebep TEXT," +
-                    "sure BIGINT," +
-                    "ceza VARCHAR(32)," +
-                    "zaman BIGINT" +
-                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
-            st.close();
+            for (int i = 0; i < maxBatches; i++){
+                int moved = reports.archiveBatch(settings.serverName, cutoff, batch);
+                total += moved;
+                if (moved < batch) break;
+            }
         } catch (Exception e){
-            getLogger().severe("MySQL tablo oluşturma hatası: " + e.getMessage());
-            e.printStackTrace();
+            getLogger().warning("Raporlar arşivlenemedi: " + e.getMessage());
+        }
+        if (total > 0) getLogger().info(total + " çözülmüş rapor arşive taşındı.");
+    }
+
+    // ---------- Timed punishments ----------
+    private long punishmentWindowMillis(){
+        return Math.max(1, settings.config.getInt("ceza-bitis.pencere-dakika", 10)) * 60_000L;
+    }
+
+    // Reads active punishments ending in [loaded, now + window) and hands them to the wheel.
+    // The first run also picks up everything that ended while the server was down.
+    private void loadPunishmentWindow(){
+        if (dbDown || !punishmentsLoading.compareAndSet(false, true)) return;
+        try {
+            long to = System.currentTimeMillis() + punishmentWindowMillis();
+            if (to <= punishmentLoadedUntil) return;
+            // approvals ending before `to` now go straight to the wheel, so none fall in the gap
+            punishmentWindowEnd = to;
+            List<Punishment> rows = reports.punishmentsEnding(settings.serverName, punishmentLoadedUntil, to);
+            punishmentLoadedUntil = to;
+            if (!rows.isEmpty()) runSync(() -> { for (Punishment pu : rows) punishmentWheel.add(pu); });
+        } catch (Exception e){
+            getLogger().warning("Aktif cezalar okunamadı: " + e.getMessage());
+        } finally {
+            punishmentsLoading.set(false);
         }
     }
 
-    private void createTablesSQLite(){
+    // New timed punishment from an approval: into the wheel if it ends inside the loaded
+    // window, otherwise a later window read will pick it up.
+    private void schedulePunishment(Punishment pu){
+        if (!settings.serverName.equals(pu.sunucu) || pu.bitis >= punishmentWindowEnd) return;
+        runSync(() -> punishmentWheel.add(pu));
+    }
+
+    // Main thread, once a second. Due punishments are closed in the DB first; only the ones
+    // this server closed get their end commands, the rest were handled elsewhere.
+    private void firePunishments(){
+        if (dbDown) return; // stay in the wheel until they can be closed
+        List<Punishment> due = punishmentWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) return;
+        runAsync(() -> closeAndRunEndCommands(due, ReportRepository.CEZA_BITTI, null));
+    }
+
+    private void cancelPunishments(CommandSender sender, String name){
+        runAsync(() -> {
+            try {
+                List<Punishment> active = reports.activePunishments(settings.serverName, name);
+                UUID requester = sender instanceof Player ? ((Player) sender).getUniqueId() : null;
+                List<Punishment> closed = closeAndRunEndCommands(active, ReportRepository.CEZA_IPTAL, requester);
+                runSync(() -> {
+                    for (Punishment pu : closed) punishmentWheel.cancel(pu.id);
+                    if (closed.isEmpty()){
+                        sender.sendMessage(getMsg("messages.punishment.none", "&e{hedef} için aktif bir ceza yok.").replace("{hedef}", name));
+                    } else {
+                        sender.sendMessage(getMsg("messages.punishment.cancelled", "&a{hedef} için {adet} aktif ceza kaldırıldı.")
+                                .replace("{hedef}", name).replace("{adet}", String.valueOf(closed.size())));
+                    }
+                });
+            } catch (Exception e){
+                e.printStackTrace();
+                runSync(() -> sender.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
+            }
+        });
+    }
+
+    // Off the main thread. Returns the punishments this call closed. Expiry (no requester)
+    // puts them back in the wheel when the DB update fails, so they are retried.
+    private List<Punishment> closeAndRunEndCommands(List<Punishment> list, String durum, UUID requester){
+        List<Integer> ids = new ArrayList<>(list.size());
+        for (Punishment pu : list) ids.add(pu.id);
+        Set<Integer> closedIds;
         try {
-            Statement st = connection.createStatement();
-            st.execute("CREATE TABLE IF NOT EXISTS raporlar (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "raporlayan TEXT," +
-                    "raporlanan TEXT," +
-                    "sunucu TEXT," +
-                    "zaman INTEGER," +
-                    "durum TEXT," +
-                    "sebep TEXT," +
-                    "ceza TEXT," +
-                    "sure INTEGER," +
-                    "onaylayan TEXT," +
-                    "onay_zaman INTEGER" +
-                    ");");
-            st.execute("CREATE TABLE IF NOT EXISTS chatlogs (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "uuid TEXT," +
-                    "mesaj TEXT," +
-                    "zaman INTEGER" +
-                    ");");
-            st.execute("CREATE TABLE IF NOT EXISTS rapor_logs (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "rapor_id INTEGER," +
-                    "action TEXT," +
-                    "yetkili TEXT," +
-                    "sebep TEXT," +
-                    "sure INTEGER," +
-                    "ceza TEXT," +
-                    "zaman INTEGER" +
-                    ");");
-            st.close();
+            closedIds = new HashSet<>(reports.closePunishments(ids, durum));
         } catch (Exception e){
-            getLogger().severe("SQLite tablo oluşturma hatası: " + e.getMessage());
-            e.printStackTrace();
+            getLogger().warning("Cezalar kapatılamadı: " + e.getMessage());
+            if (requester == null) runSync(() -> { for (Punishment pu : list) punishmentWheel.add(pu); });
+            return new ArrayList<>();
+        }
+        List<Punishment> closed = new ArrayList<>(closedIds.size());
+        for (Punishment pu : list) if (closedIds.contains(pu.id)) closed.add(pu);
+        if (closed.isEmpty()) return closed;
+        Settings s = settings;
+        for (Punishment pu : closed){
+            Map<String, String> values = new HashMap<>();
+            values.put("raporlanan", pu.raporlanan);
+            values.put("ceza-tür", pu.ceza == null || pu.ceza.isEmpty() ? "ceza" : pu.ceza);
+            for (CommandTemplate t : s.punishmentEndCommands(pu.ceza)) commands.submit(t.render(values), pu.raporlanan, requester);
+        }
+        return closed;
+    }
+
+    private void applySqliteSettings(Database db){
+        db.configureSqlite(
+                settings.config.getBoolean("sqlite.wal", true),
+                settings.config.getInt("sqlite.okuyucu", 3),
+                settings.config.getInt("sqlite.cache-kb", 8192),
+                settings.config.getInt("sqlite.mmap-mb", 64),
+                settings.config.getInt("sqlite.busy-timeout-ms", 5000));
+    }
+
+    // ---------- Chat log consumer ----------
+    // Single consumer: overlapping timer runs just skip.
+    private void drainChatBuffer(){
+        // while starting dbDown is already set, so chat goes to the journal; without one the
+        // ring holds it until the DB state is known
+        if (!ready && journal == null) return;
+        if (!chatDraining.compareAndSet(false, true)) return;
+        try {
+            drainChatBufferLocked();
+        } finally {
+            chatDraining.set(false);
+        }
+    }
+
+    private void drainChatBufferLocked(){
+        long dropped = chatBuffer.takeDropped();
+        if (dropped > 0) getLogger().warning("Sohbet tamponu dolu, " + dropped + " mesaj kaydedilemedi.");
+        int total = 0;
+        while (total < CHAT_DRAIN_MAX && !chatBuffer.isEmpty()){
+            chatBatchCount = 0;
+            total += chatBuffer.drain(this::addChatToBatch, chatBatchSize);
+            flushChatBatch();
+        }
+        if (chatBlocks != null) flushChatBlocks(false);
+    }
+
+    private void addChatToBatch(UUID uuid, String mesaj, long zaman){
+        chatBatchUuid[chatBatchCount] = uuid;
+        chatBatchMesaj[chatBatchCount] = mesaj;
+        chatBatchZaman[chatBatchCount] = zaman;
+        chatBatchCount++;
+    }
+
+    private void flushChatBatch(){
+        if (chatBatchCount == 0) return;
+        if (chatBlocks != null){
+            for (int i = 0; i < chatBatchCount; i++) chatBlocks.add(chatBatchUuid[i], chatBatchMesaj[i], chatBatchZaman[i]);
+            clearChatBatch();
+            return;
+        }
+        try {
+            List<byte[]> payloads = null;
+            while (true){
+                if (!dbDown){
+                    try {
+                        reports.insertChat(chatBatchUuid, chatBatchMesaj, chatBatchZaman, chatBatchCount);
+                        return;
+                    } catch (SQLException ex){
+                        if (!Database.isConnectionError(ex)){
+                            getLogger().warning(chatBatchCount + " sohbet kaydı yazılamadı: " + ex.getMessage());
+                            return;
+                        }
+                        getLogger().warning("Sohbet kayıtları yazılamadı, yerel günlüğe aktarılıyor: " + ex.getMessage());
+                        dbDown = true;
+                    }
+                }
+                if (payloads == null){
+                    payloads = new ArrayList<>(chatBatchCount);
+                    for (int i = 0; i < chatBatchCount; i++) payloads.add(encodeChat(chatBatchUuid[i], chatBatchMesaj[i], chatBatchZaman[i]));
+                }
+                int refused = journalIfDown(WriteAheadJournal.TYPE_CHAT, payloads, false);
+                if (refused > 0) getLogger().warning("Günlük dolu, " + refused + " sohbet mesajı kaydedilemedi.");
+                if (refused >= 0) return;
+                // the DB came back meanwhile: write directly
+            }
+        } catch (IOException ex){
+            ex.printStackTrace();
+        } finally {
+            clearChatBatch();
+        }
+    }
+
+    // Writes finished chat blocks; on failure their lines go to the journal like row-mode chat.
+    private void flushChatBlocks(boolean all){
+        List<ChatBlockStore.Block> due = chatBlocks.takeDue(System.currentTimeMillis(), all);
+        if (due.isEmpty()) return;
+        try {
+            List<byte[]> payloads = null;
+            while (true){
+                if (!dbDown){
+                    try {
+                        chatBlocks.write(database, due);
+                        return;
+                    } catch (SQLException ex){
+                        if (!Database.isConnectionError(ex)){
+                            getLogger().warning("Sohbet blokları yazılamadı: " + ex.getMessage());
+                            return;
+                        }
+                        getLogger().warning("Sohbet blokları yazılamadı, yerel günlüğe aktarılıyor: " + ex.getMessage());
+                        dbDown = true;
+                    }
+                }
+                if (payloads == null){
+                    payloads = new ArrayList<>();
+                    for (ChatBlockStore.Block b : due){
+                        for (ChatLine l : b.lines) payloads.add(encodeChat(l.uuid, l.mesaj, l.zaman));
+                    }
+                }
+                int refused = journalIfDown(WriteAheadJournal.TYPE_CHAT, payloads, false);
+                if (refused > 0) getLogger().warning("Günlük dolu, " + refused + " sohbet mesajı kaydedilemedi.");
+                if (refused >= 0) return;
+            }
+        } catch (IOException ex){
+            ex.printStackTrace();
+        } finally {
+            chatBlocks.release(due);
+        }
+    }
+
+    private void clearChatBatch(){
+        for (int i = 0; i < chatBatchCount; i++){
+            chatBatchUuid[i] = null;
+            chatBatchMesaj[i] = null;
+        }
+        chatBatchCount = 0;
+    }
+
+    // ---------- Write-ahead journal ----------
+    // Inserts a new pending report; if the DB is unreachable the report is forced to the
+    // local journal instead and -1 is returned. Package-private only for the LoadTest harness.
+    int persistReport(String raporlayan, String raporlanan, String sunucu, long zaman, String sebep) throws IOException, SQLException {
+        byte[] payload = null;
+        while (true){
+            if (!dbDown){
+                try {
+                    int id = reports.insertReport(raporlayan, raporlanan, sunucu, zaman, sebep);
+                    if (id > 0 && sunucu.equals(settings.serverName)){
+                        Report r = new Report(id, raporlayan, raporlanan, sunucu, zaman, ReportRepository.DURUM_BEKLIYOR, sebep, null, 0, null, 0);
+                        pendingItems.put(id, reportBookView(r));
+                        pendingQueue.add(r);
+                        adminViewsDirty = true;
+                    }
+                    historyCache.clear();
+                    detailCache.clear();
+                    volume.record(sunucu, reports.categoryOf(sebep), zaman);
+                    return id;
+                } catch (SQLException ex){
+                    // a bad row is the caller's error, only an unreachable DB switches to the journal
+                    if (!Database.isConnectionError(ex)) throw ex;
+                    getLogger().warning("Rapor veritabanına yazılamadı, yerel günlüğe aktarılıyor: " + ex.getMessage());
+                    dbDown = true;
+                }
+            }
+            if (journal == null) throw new IOException("Günlük kullanılamıyor");
+            if (payload == null) payload = encodeReport(raporlayan, raporlanan, sunucu, zaman, sebep);
+            int refused = journalIfDown(WriteAheadJournal.TYPE_REPORT, Collections.singletonList(payload), true);
+            if (refused > 0) throw new IOException("Rapor günlüğe yazılamadı");
+            if (refused == 0){
+                volume.record(sunucu, reports.categoryOf(sebep), zaman);
+                return -1;
+            }
+            // the DB came back meanwhile: write directly
+        }
+    }
+
+    // Appends records while the DB is still down. The dbDown check and the appends hold the
+    // journal lock, which replayJournal also holds to clear dbDown, so nothing is journaled
+    // after its last replay pass. Returns the number of refused records, or -1 when the DB
+    // is back and nothing was journaled.
+    private int journalIfDown(byte type, List<byte[]> payloads, boolean force) throws IOException {
+        if (journal == null) return payloads.size();
+        synchronized (journal){
+            if (!dbDown) return -1;
+            int refused = 0;
+            for (byte[] p : payloads) if (!journal.append(type, p, force)) refused++;
+            return refused;
+        }
+    }
+
+    private void replayJournal(){
+        if (!ready || !dbDown) return;
+        long now = System.currentTimeMillis();
+        if (now < nextReconnectAt) return;
+        try {
+            database.connect();
+            reconnectDelayMs = 0;
+            warmUp(); // startup never connected: the journaled reports must not beat the backfill
+            int n = 0;
+            boolean drained = true;
+            if (journal == null){
+                dbDown = false; // no journal: nothing was written while down, only reconnect
+            } else {
+                n = journal.replay(this::replayBatch, 500);
+                synchronized (journal){
+                    // writers journal only after re-checking dbDown under this lock
+                    drained = !journal.hasPending();
+                    if (drained) dbDown = false;
+                }
+            }
+            if (drained){
+                getLogger().info("Veritabanı bağlantısı geri geldi, günlükten " + n + " kayıt aktarıldı.");
+                if (!queuesLoaded) loadQueues();
+                else if (n > 0) reloadPendingQueue(); // replayed reports got their ids only now
+            }
+        } catch (Exception ex){
+            // still down; back off exponentially up to gunluk.max-deneme-saniye
+            long base = Math.max(1, settings.config.getInt("gunluk.deneme-saniye", 5)) * 1000L;
+            long max = Math.max(1, settings.config.getInt("gunluk.max-deneme-saniye", 60)) * 1000L;
+            reconnectDelayMs = reconnectDelayMs == 0 ? base : Math.min(reconnectDelayMs * 2, max);
+            nextReconnectAt = now + reconnectDelayMs;
         }
     }
 
+    // Writes one journal batch in a single transaction: a failed batch is offered again as a
+    // whole, so none of its reports (or profile counts) are written twice.
+    private void replayBatch(List<WriteAheadJournal.Record> batch) throws Exception {
+        List<Report> reportRows = new ArrayList<>();
+        List<ChatLine> chatRows = new ArrayList<>();
+        for (WriteAheadJournal.Record r : batch){
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(r.payload));
+            if (r.type == WriteAheadJournal.TYPE_REPORT){
+                String raporlayan = in.readUTF();
+                String raporlanan = in.readUTF();
+                String sunucu = in.readUTF();
+                long zaman = in.readLong();
+                String sebep = in.readUTF();
+                reportRows.add(new Report(-1, raporlayan, raporlanan, sunucu, zaman, ReportRepository.DURUM_BEKLIYOR, sebep, null, 0, null, 0));
+            } else if (r.type == WriteAheadJournal.TYPE_CHAT){
+                chatRows.add(new ChatLine(new UUID(in.readLong(), in.readLong()), in.readUTF(), in.readLong()));
+            }
+        }
+        // block mode: journaled chat is compressed and written in the same transaction
+        List<ChatBlockStore.Block> blocks = chatBlocks == null ? null : chatBlocks.blocksOf(chatRows);
+        byte[][] data = blocks == null ? null : ChatBlockStore.encodeAll(blocks);
+        database.transaction(c -> {
+            reports.insertReports(reportRows);
+            if (blocks == null) reports.insertChat(chatRows);
+            else ChatBlockStore.insert(database, blocks, data);
+            return null;
+        });
+    }
+
+    private byte[] encodeReport(String raporlayan, String raporlanan, String sunucu, long zaman, String sebep) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeUTF(raporlayan);
+        out.writeUTF(raporlanan);
+        out.writeUTF(sunucu);
+        out.writeLong(zaman);
+        out.writeUTF(sebep == null ? "" : sebep);
+        return bos.toByteArray();
+    }
+
+    private byte[] encodeChat(UUID uuid, String mesaj, long zaman) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 + mesaj.length() * 2);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeUTF(mesaj);
+        out.writeLong(zaman);
+        return bos.toByteArray();
+    }
+
     // ---------- Utilities ----------
     private void runAsync(Runnable r){
         getServer().getScheduler().runTaskAsynchronously(this, r);
@@ -321,15 +972,99 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         return months + (months==1?" ay":" ay");
     }
 
+    // any thread
     private String timeStampToString(long ts){
-        java.sql.Date d = new java.sql.Date(ts);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        return sdf.format(d);
+        return TIME_FORMAT.format(Instant.ofEpochMilli(ts));
     }
 
     // ---------- Commands ----------
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args){
+        if (!ready){
+            deferUntilReady(sender, () -> onCommand(sender, command, label, args));
+            return true;
+        }
+        // config/messages hot reload, usable from console
+        if (command.getName().equalsIgnoreCase("raporlar") && args.length >= 1 && args[0].equalsIgnoreCase("reload")){
+            if (!sender.hasPermission("hyperrapor.reload")){
+                sender.sendMessage(getMsg("messages.no_perm", "&cBu komutu kullanmak için yetkiniz yok."));
+                return true;
+            }
+            // parse off the main thread, swap on it
+            runAsync(() -> {
+                Settings next;
+                try {
+                    next = Settings.load(getDataFolder());
+                } catch (Exception e){
+                    // keep the current settings; a broken file must not swap in the defaults
+                    getLogger().warning("Ayarlar yeniden yüklenemedi: " + e.getMessage());
+                    runSync(() -> sender.sendMessage(getMsg("messages.reload_failed", "&cAyarlar yüklenemedi, eski ayarlar kullanılıyor: &e{hata}")
+                            .replace("{hata}", String.valueOf(e.getMessage()))));
+                    return;
+                }
+                runSync(() -> {
+                    applySettings(next);
+                    sender.sendMessage(getMsg("messages.reloaded", "&aAyarlar yeniden yüklendi."));
+                });
+            });
+            return true;
+        }
+        // report volume charts, usable from console
+        if (command.getName().equalsIgnoreCase("raporlar") && args.length >= 1 && args[0].equalsIgnoreCase("hacim")){
+            if (!sender.hasPermission(settings.adminPermission)){
+                sender.sendMessage(getMsg("messages.no_perm", "&cBu komutu kullanmak için yetkiniz yok."));
+                return true;
+            }
+            boolean daily = args.length >= 2 && (args[1].equalsIgnoreCase("gun") || args[1].equalsIgnoreCase("gün"));
+            String sunucu = args.length >= 3 ? (args[2].equals("*") ? null : args[2]) : settings.serverName;
+            runAsync(() -> {
+                try {
+                    List<String> lines = volumeLines(sunucu, daily);
+                    runSync(() -> { for (String l : lines) sender.sendMessage(l); });
+                } catch (Exception e){
+                    e.printStackTrace();
+                    runSync(() -> sender.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
+                }
+            });
+            return true;
+        }
+        // lift a target's timed punishments early, usable from console
+        if (command.getName().equalsIgnoreCase("raporlar") && args.length >= 1 && args[0].equalsIgnoreCase("cezaiptal")){
+            if (!sender.hasPermission(settings.adminPermission)){
+                sender.sendMessage(getMsg("messages.no_perm", "&cBu komutu kullanmak için yetkiniz yok."));
+                return true;
+            }
+            if (args.length != 2){
+                sender.sendMessage(getMsg("messages.usage.cancel_punishment", "&cKullanım: /raporlar cezaiptal <isim>"));
+                return true;
+            }
+            cancelPunishments(sender, args[1]);
+            return true;
+        }
+        // one staff member's decisions, newest first; GUI for players, chat for console
+        if (command.getName().equalsIgnoreCase("raporlar") && args.length >= 1 && args[0].equalsIgnoreCase("denetim")){
+            if (!sender.hasPermission("hyperrapor.denetim")){
+                sender.sendMessage(getMsg("messages.no_perm", "&cBu komutu kullanmak için yetkiniz yok."));
+                return true;
+            }
+            if (args.length < 2){
+                sender.sendMessage(getMsg("messages.usage.audit", "&cKullanım: /raporlar denetim <yetkili> [onay|red|hepsi] [gün]"));
+                return true;
+            }
+            String action = null;
+            if (args.length >= 3 && !args[2].equalsIgnoreCase("hepsi")) action = args[2].toLowerCase(Locale.ROOT);
+            int days = 0;
+            if (args.length >= 4){
+                try { days = Integer.parseInt(args[3]); } catch (NumberFormatException ignored) {}
+            }
+            long from = days > 0 ? System.currentTimeMillis() - days * 24L * 60 * 60 * 1000 : 0L;
+            // staff names are stored as typed by the server; match "steve" to "Steve"
+            String yetkili = names.resolve(args[1]);
+            AuditView view = new AuditView(yetkili != null ? yetkili : args[1], action, from);
+            if (sender instanceof Player) openAuditGui((Player) sender, view);
+            else printAudit(sender, view);
+            return true;
+        }
         if (!(sender instanceof Player)) {
             sender.sendMessage("Sadece oyuncular kullanabilir.");
             return true;
@@ -340,15 +1075,19 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
                 p.sendMessage(getMsg("messages.usage.report", "&cKullanım: /rapor <isim>"));
                 return true;
             }
-            String target = args[0];
+            String target = names.resolve(args[0]);
+            if (target == null){
+                p.sendMessage(getMsg("messages.unknown_target", "&cBu isimde bir oyuncu bulunamadı: &e{hedef}").replace("{hedef}", args[0]));
+                return true;
+            }
             // limit & cooldown checks
             int used = dailyReports.getOrDefault(p.getUniqueId(), 0);
-            if (used >= dailyLimit){
+            if (used >= settings.dailyLimit){
                 p.sendMessage(getMsg("messages.toomany", "&cBugün daha fazla rapor gönderemezsin!"));
                 return true;
             }
             long last = lastReportTime.getOrDefault(p.getUniqueId(), 0L);
-            if (System.currentTimeMillis() - last < cooldownMinutes * 60L * 1000L){
+            if (System.currentTimeMillis() - last < settings.cooldownMinutes * 60L * 1000L){
                 p.sendMessage(getMsg("messages.cooldown", "&eBiraz beklemelisin, çok hızlı raporluyorsun."));
                 return true;
             }
@@ -358,7 +1097,7 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
             return true;
         } else if (command.getName().equalsIgnoreCase("raporlar")){
             // permission check
-            if (!p.hasPermission(adminPermission)){
+            if (!p.hasPermission(settings.adminPermission)){
                 p.sendMessage(getMsg("messages.no_perm", "&cBu komutu kullanmak için yetkiniz yok."));
                 return true;
             }
@@ -368,14 +1107,41 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         return false;
     }
 
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args){
+        if (args.length == 2 && command.getName().equalsIgnoreCase("raporlar")
+                && (args[0].equalsIgnoreCase("cezaiptal") || args[0].equalsIgnoreCase("denetim"))){
+            return names.complete(args[1], TAB_COMPLETE_MAX);
+        }
+        if (args.length == 3 && command.getName().equalsIgnoreCase("raporlar") && args[0].equalsIgnoreCase("denetim")){
+            List<String> out = new ArrayList<>();
+            for (String a : new String[]{ReportRepository.ACTION_ONAY, ReportRepository.ACTION_RED, "hepsi"}){
+                if (a.startsWith(args[2].toLowerCase(Locale.ROOT))) out.add(a);
+            }
+            return out;
+        }
+        if (args.length != 1) return Collections.emptyList();
+        if (command.getName().equalsIgnoreCase("rapor")){
+            return names.complete(args[0], TAB_COMPLETE_MAX);
+        }
+        if (command.getName().equalsIgnoreCase("raporlar")){
+            List<String> out = new ArrayList<>();
+            for (String sub : new String[]{"cezaiptal", "denetim", "hacim", "reload"}){
+                if (sub.startsWith(args[0].toLowerCase(Locale.ROOT))) out.add(sub);
+            }
+            return out;
+        }
+        return Collections.emptyList();
+    }
+
     // ---------- Player report GUI ----------
     private void openReportCategoryGui(Player p){
-        String title = guiReportTitle;
+        String title = settings.guiReportTitle;
         Inventory inv = Bukkit.createInventory(null, 9, title);
-        for (int i=0;i<categories.size() && i<8;i++){
+        for (int i=0;i<settings.categories.size() && i<8;i++){
             ItemStack it = new ItemStack(Material.PAPER);
             ItemMeta meta = it.getItemMeta();
-            meta.setDisplayName(ChatColor.YELLOW + categories.get(i));
+            meta.setDisplayName(ChatColor.YELLOW + settings.categories.get(i));
             meta.setLore(Arrays.asList(ChatColor.GRAY + getMsg("gui.report.selectcategory.lore", "Bu kategoriyi seçmek için tıklayın.")));
             it.setItemMeta(meta);
             inv.setItem(i, it);
@@ -392,98 +1158,144 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
     }
 
     // ---------- Admin GUI (paginated) ----------
-    private void openAdminGui(final Player p, final int page, final String filterStatus){
-        final String title = guiAdminTitle.replace("%page%", String.valueOf(page+1));
-        // fetch async
+    // package-private only for the LoadTest harness (src/test)
+    void openAdminGui(final Player p, final int page, final String filterStatus){
+        final String title = settings.guiAdminTitle.replace("%page%", String.valueOf(page+1));
+        final boolean live = ReportRepository.DURUM_BEKLIYOR.equals(filterStatus);
         runAsync(() -> {
             try {
-                int pageSize = 45;
-                int offset = page*pageSize;
-                PreparedStatement ps;
-                if (mysqlEnabled) {
-                    ps = connection.prepareStatement("SELECT id, raporlayan, raporlanan, zaman, sebep FROM raporlar WHERE sunucu = ? AND durum = ? ORDER BY zaman ASC LIMIT ? OFFSET ?");
-                } else {
-                    ps = connection.prepareStatement("SELECT id, raporlayan, raporlanan, zaman, sebep FROM raporlar WHERE sunucu = ? AND durum = ? ORDER BY zaman ASC LIMIT ? OFFSET ?");
-                }
-                ps.setString(1, serverName);
-                ps.setString(2, filterStatus);
-                ps.setInt(3, pageSize);
-                ps.setInt(4, offset);
-                ResultSet rs = ps.executeQuery();
-                // create inventory on main thread
-                List<Map<String,Object>> rows = new ArrayList<>();
-                while (rs.next()){
-                    Map<String,Object> row = new HashMap<>();
-                    row.put("id", rs.getInt("id"));
-                    row.put("raporlayan", rs.getString("raporlayan"));
-                    row.put("raporlanan", rs.getString("raporlanan"));
-                    row.put("zaman", rs.getLong("zaman"));
-                    row.put("sebep", rs.getString("sebep"));
-                    rows.add(row);
-                }
-                rs.close(); ps.close();
-                runSync(() -> {
-                    Inventory inv = Bukkit.createInventory(null, ADMIN_GUI_SIZE, title);
-                    int slot = 0;
-                    for (Map<String,Object> r : rows){
-                        int id = (int) r.get("id");
-                        String raporlayan = (String) r.get("raporlayan");
-                        String raporlanan = (String) r.get("raporlanan");
-                        long zaman = (long) r.get("zaman");
-                        String sebep = (String) r.get("sebep");
-                        ItemStack book = new ItemStack(Material.BOOK);
-                        ItemMeta meta = book.getItemMeta();
-                        meta.setDisplayName(ChatColor.GOLD + "Rapor #" + id + " - " + raporlanan);
-                        List<String> lore = new ArrayList<>();
-                        lore.add(ChatColor.GRAY + "Raporlayan: " + raporlayan);
-                        lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(zaman));
-                        lore.add(ChatColor.GRAY + "Sebep: " + (sebep==null?"":(sebep.length()>80?sebep.substring(0,80)+"...":sebep)));
-                        meta.setLore(lore);
-                        book.setItemMeta(meta);
-                        inv.setItem(slot, book);
-                        slot++;
-                    }
-                    // control items
-                    // Prev
-                    ItemStack prev = new ItemStack(Material.ARROW);
-                    ItemMeta pm = prev.getItemMeta();
-                    pm.setDisplayName(ChatColor.YELLOW + getMsg("gui.admin.prev", "Önceki"));
-                    prev.setItemMeta(pm);
-                    inv.setItem(45, prev);
-                    // Page info filler
-                    ItemStack info = new ItemStack(Material.PAPER);
-                    ItemMeta im = info.getItemMeta();
-                    im.setDisplayName(ChatColor.GREEN + getMsg("gui.admin.pageinfo", "Sayfa: %page%").replace("%page%", String.valueOf(page+1)));
-                    info.setItemMeta(im);
-                    inv.setItem(49, info);
-                    // Next
-                    ItemStack next = new ItemStack(Material.ARROW);
-                    ItemMeta nm = next.getItemMeta();
-                    nm.setDisplayName(ChatColor.YELLOW + getMsg("gui.admin.next", "Sonraki"));
-                    next.setItemMeta(nm);
-                    inv.setItem(53, next);
-                    // History button
-                    ItemStack hist = new ItemStack(Material.BOOK_AND_QUILL);
-                    ItemMeta hm = hist.getItemMeta();
-                    hm.setDisplayName(ChatColor.AQUA + getMsg("gui.admin.history", "Geçmiş Raporlar"));
-                    hist.setItemMeta(hm);
-                    inv.setItem(47, hist);
-                    // Stats button
-                    ItemStack stat = new ItemStack(Material.CHEST);
-                    ItemMeta sm = stat.getItemMeta();
-                    sm.setDisplayName(ChatColor.GOLD + getMsg("gui.admin.stats", "İstatistikler"));
-                    stat.setItemMeta(sm);
-                    inv.setItem(51, stat);
-
-                    p.openInventory(inv);
-                });
+                // pending reports are served from memory and the view stays live
+                List<Report> rows = live ? pendingQueue.page(page, 45)
+                        : reports.pageByStatus(settings.serverName, filterStatus, page, 45);
+                GuiView view = adminGuiView(rows, page, title);
+                runSync(() -> guiRenderer.open(p, view, !live ? null : inv -> {
+                    AdminView av = new AdminView(inv, page);
+                    for (int i = 0; i < rows.size(); i++) av.slotIds[i] = rows.get(i).id;
+                    adminViews.put(p.getUniqueId(), av);
+                    adminViewsDirty = true; // catch up with changes made since the snapshot
+                }));
             } catch (Exception e){
                 e.printStackTrace();
-                p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu."));
+                runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
             }
         });
     }
 
+    // Reports added or resolved while the query runs are applied on top of its result, so
+    // the resync neither drops a new report nor brings back a resolved one.
+    private void reloadPendingQueue(){
+        if (dbDown) return;
+        synchronized (pendingSyncLock){
+            pendingQueue.beginResync();
+            List<Report> rows;
+            try {
+                rows = reports.allByStatus(settings.serverName, ReportRepository.DURUM_BEKLIYOR);
+            } catch (Exception e){
+                pendingQueue.cancelResync();
+                getLogger().warning("Bekleyen raporlar yüklenemedi: " + e.getMessage());
+                return;
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (Report r : pendingQueue.finishResync(rows)){
+                ids.add(r.id);
+                pendingItems.put(r.id, reportBookView(r));
+            }
+            pendingItems.keySet().retainAll(ids); // a missing item is rebuilt on demand
+            adminViewsDirty = true;
+            // other servers may have changed shared rows too
+            historyCache.clear();
+            detailCache.clear();
+        }
+    }
+
+    // Re-formats the cached admin items (reload); items resolved meanwhile stay removed.
+    private void rebuildPendingItems(){
+        for (Report r : pendingQueue.snapshot()) pendingItems.replace(r.id, reportBookView(r));
+        adminViewsDirty = true;
+    }
+
+    // Bounded sweep: a few small batches per run, each its own short transaction.
+    private void expireStalePending(){
+        int days = settings.config.getInt("bekleyen-omru.gun", 7);
+        if (days <= 0 || dbDown) return;
+        int batch = Math.max(1, settings.config.getInt("bekleyen-omru.parti", 200));
+        int maxBatches = Math.max(1, settings.config.getInt("bekleyen-omru.max-parti", 5));
+        long now = System.currentTimeMillis();
+        long cutoff = now - days * 24L * 60 * 60 * 1000;
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatches; i++){
+                List<Integer> ids = reports.expireBatch(settings.serverName, cutoff, batch, "sistem", now);
+                for (int id : ids){
+                    pendingItems.remove(id);
+                    if (pendingQueue.remove(id)) adminViewsDirty = true;
+                }
+                total += ids.size();
+                if (ids.size() < batch) break;
+            }
+        } catch (Exception e){
+            getLogger().warning("Süresi dolan raporlar işlenemedi: " + e.getMessage());
+        }
+        if (total > 0){
+            historyCache.clear();
+            detailCache.clear();
+            getLogger().info(total + " bekleyen raporun süresi doldu.");
+        }
+    }
+
+    private void reportResolved(int id){
+        pendingItems.remove(id);
+        if (pendingQueue.remove(id)) adminViewsDirty = true;
+        historyCache.clear();
+        // details embed the target's profile, which other reports share
+        detailCache.clear();
+    }
+
+    // Re-renders only the slots whose report changed since the view was last drawn.
+    private void refreshAdminViews(){
+        if (!adminViewsDirty) return;
+        adminViewsDirty = false;
+        for (AdminView view : adminViews.values()){
+            List<Report> rows = pendingQueue.page(view.page, 45);
+            for (int slot = 0; slot < 45; slot++){
+                Report r = slot < rows.size() ? rows.get(slot) : null;
+                int id = r == null ? 0 : r.id;
+                if (view.slotIds[slot] == id) continue;
+                view.inv.setItem(slot, r == null ? null : pendingItem(r).toItem());
+                view.slotIds[slot] = id;
+            }
+        }
+    }
+
+    private ItemView pendingItem(Report r){
+        ItemView v = pendingItems.get(r.id);
+        return v != null ? v : reportBookView(r);
+    }
+
+    // any thread
+    private ItemView reportBookView(Report r){
+        String sebep = r.sebep;
+        List<String> lore = new ArrayList<>(3);
+        lore.add(ChatColor.GRAY + "Raporlayan: " + r.raporlayan);
+        lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(r.zaman));
+        lore.add(ChatColor.GRAY + "Sebep: " + (sebep==null?"":(sebep.length()>80?sebep.substring(0,80)+"...":sebep)));
+        return new ItemView(Material.BOOK, ChatColor.GOLD + "Rapor #" + r.id + " - " + r.raporlanan, lore);
+    }
+
+    // any thread
+    private GuiView adminGuiView(List<Report> rows, int page, String title){
+        ItemView[] slots = new ItemView[ADMIN_GUI_SIZE];
+        int shown = Math.min(rows.size(), 45);
+        for (int i = 0; i < shown; i++) slots[i] = reportBookView(rows.get(i));
+        // control items
+        slots[45] = new ItemView(Material.ARROW, ChatColor.YELLOW + getMsg("gui.admin.prev", "Önceki"), null);
+        slots[49] = new ItemView(Material.PAPER, ChatColor.GREEN + getMsg("gui.admin.pageinfo", "Sayfa: %page%").replace("%page%", String.valueOf(page+1)), null);
+        slots[53] = new ItemView(Material.ARROW, ChatColor.YELLOW + getMsg("gui.admin.next", "Sonraki"), null);
+        slots[47] = new ItemView(Material.BOOK_AND_QUILL, ChatColor.AQUA + getMsg("gui.admin.history", "Geçmiş Raporlar"), null);
+        slots[51] = new ItemView(Material.CHEST, ChatColor.GOLD + getMsg("gui.admin.stats", "İstatistikler"), null);
+        return new GuiView(title, ADMIN_GUI_SIZE, slots, shown);
+    }
+
     // ---------- Inventory click handling ----------
     @EventHandler
     public void onInventoryClick(InventoryClickEvent e){
@@ -493,7 +1305,7 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         String title = e.getView().getTitle();
 
         // Report category GUI
-        if (title.equals(guiReportTitle)){
+        if (title.equals(settings.guiReportTitle)){
             e.setCancelled(true);
             ItemStack it = e.getCurrentItem();
             if (it == null || !it.hasItemMeta()) return;
@@ -515,8 +1327,10 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         }
 
         // Admin GUI
-        //if (title.startsWith(ChatColor.stripColor(ChatColor.translateAlternateColorCodes('&', guiAdminTitle.split("%page%")[0])).trim())) {
-        if(title.equals(guiAdminTitle)){
+        //if (title.startsWith(ChatColor.stripColor(ChatColor.translateAlternateColorCodes('&', settings.guiAdminTitle.split("%page%")[0])).trim())) {
+        AdminView adminView = adminViews.get(p.getUniqueId());
+        if (adminView != null && adminView.inv != e.getView().getTopInventory()) adminView = null;
+        if(title.equals(settings.guiAdminTitle) || adminView != null){
             e.setCancelled(true);
             // clicked a control
             ItemStack it = e.getCurrentItem();
@@ -525,7 +1339,7 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
             // Prev
             if (name.equalsIgnoreCase(ChatColor.stripColor(getMsg("gui.admin.prev", "Önceki")))){
                 // extract current page from title
-                int curPage = extractPageFromTitle(title);
+                int curPage = adminView != null ? adminView.page : extractPageFromTitle(title);
                 int newPage = Math.max(0, curPage-1);
                 openAdminGui(p, newPage, "bekliyor");
                 return;
@@ -533,7 +1347,7 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
             // Next
             if (name.equalsIgnoreCase(ChatColor.stripColor(getMsg("gui.admin.next", "Sonraki")))){
                 e.setCancelled(true);
-                int curPage = extractPageFromTitle(title);
+                int curPage = adminView != null ? adminView.page : extractPageFromTitle(title);
                 int newPage = curPage+1;
                 openAdminGui(p, newPage, "bekliyor");
                 return;
@@ -574,31 +1388,23 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         }
 
         // Detail GUI
-        if (title.equals(guiDetailTitle)){
+        DetailView detailView = detailViews.get(p.getUniqueId());
+        if (detailView != null && detailView.inv == e.getView().getTopInventory()){
             e.setCancelled(true);
-            ItemStack it = e.getCurrentItem();
-            if (it == null || !it.hasItemMeta()) return;
-            String name = ChatColor.stripColor(it.getItemMeta().getDisplayName());
-            // Approve
-            if (name.equals(guiDetailApprove)){
-                // find report id in title
-                int id = extractReportIdFromTitle(title);
-                if (id == -1) { p.sendMessage(ChatColor.RED + "Rapor ID bulunamadı."); return; }
-                // set pending for duration input
+            int slot = e.getRawSlot();
+            // Approve: ask for the duration next
+            if (slot == 11){
                 PendingAction pa = new PendingAction(PendingType.APPROVE_DURATION);
-                pa.reportId = id;
+                pa.reportId = detailView.reportId;
                 pending.put(p.getUniqueId(), pa);
                 p.closeInventory();
                 p.sendMessage(getMsg("messages.approve.duration_prompt", "&eOnaylamak için süre girin (ör: 10m, 2h, 1d, 'kalıcı'):"));
                 return;
             }
             // Reject
-           if (name.equals(guiDetailReject)){
-               e.setCancelled(true);
-                int id = extractReportIdFromTitle(title);
-                if (id == -1) { p.sendMessage(ChatColor.RED + "Rapor ID bulunamadı."); return; }
+            if (slot == 15){
                 PendingAction pa = new PendingAction(PendingType.REJECT_REASON);
-                pa.reportId = id;
+                pa.reportId = detailView.reportId;
                 pending.put(p.getUniqueId(), pa);
                 p.closeInventory();
                 p.sendMessage(getMsg("messages.reject.prompt", "&eReddetme sebebini yazın:"));
@@ -608,26 +1414,20 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         }
 
         // History GUI
-        if (title.equals(guiHistoryTitle)){
+        HistoryView historyView = historyViews.get(p.getUniqueId());
+        if (historyView != null && historyView.inv == e.getView().getTopInventory()){
             e.setCancelled(true);
-            ItemStack it = e.getCurrentItem();
-            if (it == null || !it.hasItemMeta()) return;
-            String name = ChatColor.stripColor(it.getItemMeta().getDisplayName());
-            // Prev
-            if (name.equalsIgnoreCase(ChatColor.stripColor(getMsg("gui.admin.prev", "Önceki")))){
-                e.setCancelled(true);
-                int curPage = extractPageFromTitle(title);
-                int newPage = Math.max(0, curPage-1);
-                openHistoryGui(p, newPage);
+            int slot = e.getRawSlot();
+            if (slot == 45){
+                if (historyView.page > 0) openHistoryGui(p, historyView.page - 1);
                 return;
             }
-            if (name.equalsIgnoreCase(ChatColor.stripColor(getMsg("gui.admin.next", "Sonraki")))){
-                e.setCancelled(true);
-                int curPage = extractPageFromTitle(title);
-                int newPage = curPage+1;
-                openHistoryGui(p, newPage);
+            if (slot == 53){
+                if (historyView.hasNext) openHistoryGui(p, historyView.page + 1);
                 return;
             }
+            ItemStack it = e.getCurrentItem();
+            if (it == null || !it.hasItemMeta()) return;
             // Click on history item -> open detail
             if (it.getType() == Material.ENCHANTED_BOOK || it.getType()==Material.WRITTEN_BOOK || it.getType()==Material.BOOK){
                 String display = ChatColor.stripColor(it.getItemMeta().getDisplayName());
@@ -641,12 +1441,32 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
                         p.sendMessage(ChatColor.RED + "Rapor ID okunamadı.");
                     }
                 }
-                return;
             }
+            return;
+        }
+
+        // Audit GUI
+        AuditView auditView = auditViews.get(p.getUniqueId());
+        if (auditView != null && auditView.inv == e.getView().getTopInventory()){
+            e.setCancelled(true);
+            int slot = e.getRawSlot();
+            if (slot == 45 && !auditView.earlier.isEmpty()){
+                auditView.cursor = auditView.earlier.pop();
+                auditView.page--;
+                openAuditGui(p, auditView);
+            } else if (slot == 53 && auditView.nextCursor != null){
+                auditView.earlier.push(auditView.cursor);
+                auditView.cursor = auditView.nextCursor;
+                auditView.page++;
+                openAuditGui(p, auditView);
+            } else if (slot >= 0 && slot < AUDIT_PAGE_SIZE && auditView.slotIds[slot] > 0){
+                openDetailGui(p, auditView.slotIds[slot]);
+            }
+            return;
         }
 
         // Stats GUI (clicks can be implemented later if needed)
-        if (title.equals(guiStatsTitle)){
+        if (title.equals(settings.guiStatsTitle)){
             e.setCancelled(true);
             p.closeInventory();
             p.sendMessage(getMsg("messages.info.stats_click", "&eİstatistikler gösteriminde tıklama yok."));
@@ -664,102 +1484,34 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         } catch (Exception e){ return 0; }
     }
 
-    private int extractReportIdFromTitle(String title){
-        // guiDetailTitle was like "Rapor Detayı #", but actual title will be guiDetailTitle + id
-        // attempt to get trailing digits
-        try {
-            String digits = title.replaceAll("[^0-9]", "");
-            if (digits.length()==0) return -1;
-            return Integer.parseInt(digits);
-        } catch (Exception e){ return -1; }
+    // ---------- Open report detail ----------
+    // what the detail screen shows; cached per report id
+    private static final class ReportDetail {
+        final Report report;
+        final List<String> lastMessages;
+        final OffenderProfile profile;
+        ReportDetail(Report report, List<String> lastMessages, OffenderProfile profile){
+            this.report = report; this.lastMessages = lastMessages; this.profile = profile;
+        }
     }
 
-    // ---------- Open report detail ----------
     private void openDetailGui(Player p, int reportId){
+        GuiView cached = detailCache.get(reportId);
+        if (cached != null){
+            showDetail(p, reportId, cached);
+            return;
+        }
         runAsync(() -> {
             try {
-                PreparedStatement ps = connection.prepareStatement("SELECT * FROM raporlar WHERE id = ?");
-                ps.setInt(1, reportId);
-                ResultSet rs = ps.executeQuery();
-                if (!rs.next()){
-                    rs.close(); ps.close();
+                long gen = detailCache.generation();
+                ReportDetail detail = loadDetail(reportId);
+                if (detail == null){
                     runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.not_found", "Rapor bulunamadı.")));
                     return;
                 }
-                String raporlayan = rs.getString("raporlayan");
-                String raporlanan = rs.getString("raporlanan");
-                long zaman = rs.getLong("zaman");
-                String sebep = rs.getString("sebep");
-                String durum = rs.getString("durum");
-                rs.close(); ps.close();
-
-                // fetch last messages (2 minutes before zaman)
-                UUID targetUUID = null;
-                try {
-                    targetUUID = Bukkit.getOfflinePlayer(raporlanan).getUniqueId();
-                } catch (Exception ignored){}
-                List<String> lastMessages = new ArrayList<>();
-                if (targetUUID != null){
-                    PreparedStatement ps2 = connection.prepareStatement("SELECT mesaj, zaman FROM chatlogs WHERE uuid = ? AND zaman BETWEEN ? AND ? ORDER BY zaman ASC");
-                    ps2.setString(1, targetUUID.toString());
-                    ps2.setLong(2, Math.max(0, zaman - 120000));
-                    ps2.setLong(3, zaman);
-                    ResultSet rs2 = ps2.executeQuery();
-                    while (rs2.next()){
-                        long mz = rs2.getLong("zaman");
-                        String msg = rs2.getString("mesaj");
-                        lastMessages.add("[" + timeStampToString(mz) + "] " + msg);
-                    }
-                    rs2.close(); ps2.close();
-                }
-
-                // build GUI on main thread
-                runSync(() -> {
-                    String title = ChatColor.stripColor(guiDetailTitle);
-                    Inventory inv = Bukkit.createInventory(null, 27, title); // 3 rows
-                    // Info item
-                    ItemStack info = new ItemStack(Material.BOOK);
-                    ItemMeta im = info.getItemMeta();
-                    im.setDisplayName(ChatColor.GOLD + "Rapor #" + reportId);
-                    List<String> lore = new ArrayList<>();
-                    lore.add(ChatColor.GRAY + "Raporlayan: " + raporlayan);
-                    lore.add(ChatColor.GRAY + "Raporlanan: " + raporlanan);
-                    lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(zaman));
-                    lore.add(ChatColor.GRAY + "Durum: " + (durum==null?"":durum));
-                    lore.add(ChatColor.GRAY + "Sebep: " + (sebep==null?"":sebep));
-                    lore.add("");
-                    lore.add(ChatColor.YELLOW + "Son mesajlar (" + messagesToShow + "):");
-                    int added = 0;
-                    for (int i = Math.max(0, lastMessages.size()-messagesToShow); i < lastMessages.size(); i++){
-                        lore.add(ChatColor.GRAY + lastMessages.get(i));
-                        added++;
-                    }
-                    if (added==0) lore.add(ChatColor.GRAY + "Mesaj yok.");
-                    im.setLore(lore);
-                    info.setItemMeta(im);
-                    inv.setItem(13, info);
-
-                    // Approve
-                    ItemStack approve = new ItemStack(Material.WOOL,1,(short)5); // green wool
-                    try { approve = new ItemStack(Material.getMaterial("WOOL"),1,(short)5); } catch (Exception ignored) {}
-                    ItemMeta am = approve.getItemMeta();
-                    am.setDisplayName(ChatColor.GREEN + getMsg(guiDetailApprove, "✔ Onayla"));
-                    am.setLore(Arrays.asList(ChatColor.GRAY + getMsg("gui.detail.approve.lore", "Raporu onaylamak için tıklayın.")));
-                    approve.setItemMeta(am);
-                    inv.setItem(11, approve);
-
-                    // Reject
-                    ItemStack reject = new ItemStack(Material.WOOL,1,(short)14); // red wool
-                    try { reject = new ItemStack(Material.getMaterial("WOOL"),1,(short)14); } catch (Exception ignored) {}
-                    ItemMeta rm = reject.getItemMeta();
-                    rm.setDisplayName(ChatColor.RED + getMsg("gui.detail.reject", "✖ Reddet"));
-                    rm.setLore(Arrays.asList(ChatColor.GRAY + getMsg("gui.detail.reject.lore", "Raporu onaylamak için tıklayın.")));
-                    reject.setItemMeta(rm);
-                    inv.setItem(15, reject);
-
-                    p.openInventory(inv);
-                });
-
+                GuiView view = detailGuiView(reportId, detail);
+                detailCache.putIfCurrent(reportId, view, gen);
+                runSync(() -> showDetail(p, reportId, view));
             } catch (Exception e){
                 e.printStackTrace();
                 runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
@@ -767,6 +1519,90 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         });
     }
 
+    // the previous screen's close event drops its view, so this one is registered after opening
+    private void showDetail(Player p, int reportId, GuiView view){
+        guiRenderer.open(p, view, inv -> detailViews.put(p.getUniqueId(), new DetailView(inv, reportId)));
+    }
+
+    // async: report row plus the reported player's messages from the 2 minutes before it
+    private ReportDetail loadDetail(int reportId) throws Exception {
+        Report report = reports.findById(reportId);
+        if (report == null) return null;
+        long zaman = report.zaman;
+        UUID targetUUID = null;
+        try {
+            targetUUID = Bukkit.getOfflinePlayer(report.raporlanan).getUniqueId();
+        } catch (Exception ignored){}
+        List<String> lastMessages = new ArrayList<>();
+        if (targetUUID != null && chatBlocks != null){
+            for (ChatLine l : chatBlocks.read(database, targetUUID, Math.max(0, zaman - 120000), zaman)){
+                lastMessages.add("[" + timeStampToString(l.zaman) + "] " + l.mesaj);
+            }
+        }
+        if (targetUUID != null){
+            // also covers rows written before switching to block storage
+            for (ChatLine l : reports.chatBetween(targetUUID, Math.max(0, zaman - 120000), zaman)){
+                lastMessages.add("[" + timeStampToString(l.zaman) + "] " + l.mesaj);
+            }
+        }
+        return new ReportDetail(report, lastMessages, reports.profile(report.raporlanan));
+    }
+
+    // any thread
+    private GuiView detailGuiView(int reportId, ReportDetail detail){
+        String raporlayan = detail.report.raporlayan;
+        String raporlanan = detail.report.raporlanan;
+        long zaman = detail.report.zaman;
+        String sebep = detail.report.sebep;
+        String durum = detail.report.durum;
+        List<String> lastMessages = detail.lastMessages;
+        String title = settings.guiDetailTitle + reportId;
+        ItemView[] slots = new ItemView[27]; // 3 rows
+        // Info item
+        List<String> lore = new ArrayList<>();
+        lore.add(ChatColor.GRAY + "Raporlayan: " + raporlayan);
+        lore.add(ChatColor.GRAY + "Raporlanan: " + raporlanan);
+        lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(zaman));
+        lore.add(ChatColor.GRAY + "Durum: " + (durum==null?"":durum));
+        lore.add(ChatColor.GRAY + "Sebep: " + (sebep==null?"":sebep));
+        addProfileLore(lore, detail.profile);
+        lore.add("");
+        lore.add(ChatColor.YELLOW + "Son mesajlar (" + settings.messagesToShow + "):");
+        int added = 0;
+        for (int i = Math.max(0, lastMessages.size()-settings.messagesToShow); i < lastMessages.size(); i++){
+            lore.add(ChatColor.GRAY + lastMessages.get(i));
+            added++;
+        }
+        if (added==0) lore.add(ChatColor.GRAY + "Mesaj yok.");
+        slots[13] = new ItemView(Material.BOOK, ChatColor.GOLD + "Rapor #" + reportId, lore);
+
+        // Approve (green wool) / Reject (red wool)
+        slots[11] = new ItemView(Material.WOOL, (short) 5, ChatColor.GREEN + settings.guiDetailApprove,
+                Arrays.asList(ChatColor.GRAY + settings.guiDetailApproveLore));
+        slots[15] = new ItemView(Material.WOOL, (short) 14, ChatColor.RED + settings.guiDetailReject,
+                Arrays.asList(ChatColor.GRAY + settings.guiDetailRejectLore));
+        return new GuiView(title, 27, slots, 1);
+    }
+
+    private void addProfileLore(List<String> lore, OffenderProfile pr){
+        lore.add("");
+        lore.add(ChatColor.YELLOW + "Oyuncu geçmişi:");
+        lore.add(ChatColor.GRAY + "Toplam " + pr.toplam + " rapor (" + pr.bekleyen + " bekleyen, "
+                + pr.onaylanan + " onaylı, " + pr.reddedilen + " red, " + pr.suresiDolan + " süresi dolan)");
+        if (pr.sonCeza != null){
+            lore.add(ChatColor.GRAY + "Son ceza: " + pr.sonCeza + " " + formatDurationHuman(pr.sonSure)
+                    + " (" + timeStampToString(pr.sonZaman) + ")");
+        }
+        if (!pr.kategoriler.isEmpty()){
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Integer> k : pr.kategoriler.entrySet()){
+                if (sb.length() > 0) sb.append(", ");
+                sb.append(k.getKey()).append(' ').append(k.getValue());
+            }
+            lore.add(ChatColor.GRAY + "Kategoriler: " + sb);
+        }
+    }
+
     // ---------- Save report from GUI choice ----------
     private void saveReportFromGuiChoice(Player p, String kategori){
         final String target = reportTargets.get(p.getUniqueId());
@@ -777,40 +1613,15 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         runAsync(() -> {
             try {
                 long zaman = System.currentTimeMillis();
-                PreparedStatement ps = connection.prepareStatement(
-                        (mysqlEnabled ?
-                                "INSERT INTO raporlar (raporlayan, raporlanan, sunucu, zaman, durum, sebep) VALUES (?, ?, ?, ?, ?, ?)" :
-                                "INSERT INTO raporlar (raporlayan, raporlanan, sunucu, zaman, durum, sebep) VALUES (?, ?, ?, ?, ?, ?)"
-                        ), Statement.RETURN_GENERATED_KEYS);
-                ps.setString(1, p.getName());
-                ps.setString(2, target);
-                ps.setString(3, serverName);
-                ps.setLong(4, zaman);
-                ps.setString(5, "bekliyor");
-                ps.setString(6, kategori);
-                ps.executeUpdate();
-                ResultSet keys = ps.getGeneratedKeys();
-                int newId = -1;
-                if (keys != null && keys.next()){
-                    newId = keys.getInt(1);
-                    keys.close();
-                }
-                ps.close();
+                int newId = persistReport(p.getName(), target, settings.serverName, zaman, kategori);
                 // update counters
                 dailyReports.put(p.getUniqueId(), dailyReports.getOrDefault(p.getUniqueId(), 0) + 1);
                 lastReportTime.put(p.getUniqueId(), System.currentTimeMillis());
                 reportTargets.remove(p.getUniqueId());
 
                 runSync(() -> p.sendMessage(ChatColor.GREEN + getMsg("messages.success", "Raporunuz başarıyla gönderildi.")));
-                // notify online staff
-                runSync(() -> {
-                    String notify = ChatColor.translateAlternateColorCodes('&', getMsg("messages.notify_staff", "&6Yeni rapor: &c{hedef} &7tarafından &e{raporlayan}")).replace("{hedef}", target).replace("{raporlayan}", p.getName());
-                    for (Player op : Bukkit.getOnlinePlayers()){
-                        if (op.hasPermission(adminPermission)){
-                            op.sendMessage(notify);
-                        }
-                    }
-                });
+                // notify online staff (next digest tick)
+                queueStaffNotice(target, p.getName());
             } catch (Exception e){
                 e.printStackTrace();
                 runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.save", "Rapor kaydedilirken bir hata oluştu.")));
@@ -825,9 +1636,9 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         UUID id = p.getUniqueId();
 
         // If player has a pending action, intercept the chat and treat as input (do not broadcast)
-        if (pending.containsKey(id)){
+        PendingAction pa = pending.remove(id);
+        if (pa != null){
             e.setCancelled(true);
-            PendingAction pa = pending.remove(id);
             if (pa.type == PendingType.OTHER_REASON){
                 String reason = e.getMessage();
                 // save report with reason
@@ -839,35 +1650,13 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
                             runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.no_target", "Rapor hedefi bulunamadı.")));
                             return;
                         }
-                        PreparedStatement ps = connection.prepareStatement(
-                                (mysqlEnabled ?
-                                "INSERT INTO raporlar (raporlayan, raporlanan, sunucu, zaman, durum, sebep) VALUES (?, ?, ?, ?, ?, ?)" :
-                                "INSERT INTO raporlar (raporlayan, raporlanan, sunucu, zaman, durum, sebep) VALUES (?, ?, ?, ?, ?, ?)"
-                                ), Statement.RETURN_GENERATED_KEYS);
-                        ps.setString(1, p.getName());
-                        ps.setString(2, target);
-                        ps.setString(3, serverName);
-                        ps.setLong(4, zaman);
-                        ps.setString(5, "bekliyor");
-                        ps.setString(6, reason);
-                        ps.executeUpdate();
-                        ResultSet keys = ps.getGeneratedKeys();
-                        if (keys != null) keys.close();
-                        ps.close();
+                        persistReport(p.getName(), target, settings.serverName, zaman, reason);
                         dailyReports.put(p.getUniqueId(), dailyReports.getOrDefault(p.getUniqueId(), 0) + 1);
                         lastReportTime.put(p.getUniqueId(), System.currentTimeMillis());
                         reportTargets.remove(p.getUniqueId());
                         runSync(() -> p.sendMessage(ChatColor.GREEN + getMsg("messages.success", "Raporunuz başarıyla gönderildi.")));
-                        // notify staff
-                        runSync(() -> {
-                            String notify = ChatColor.translateAlternateColorCodes('&', getMsg("messages.notify_staff", "&6Yeni rapor: &c{hedef} &7tarafından &e{raporlayan}"))
-                                    .replace("{hedef}", target).replace("{raporlayan}", p.getName());
-                            for (Player op : Bukkit.getOnlinePlayers()){
-                                if (op.hasPermission(adminPermission)){
-                                    op.sendMessage(notify);
-                                }
-                            }
-                        });
+                        // notify staff (next digest tick)
+                        queueStaffNotice(target, p.getName());
                     } catch (Exception ex){
                         ex.printStackTrace();
                         runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.save", "Rapor kaydedilirken bir hata oluştu.")));
@@ -889,89 +1678,18 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
                 pending.put(id, pa);
                 p.sendMessage(getMsg("messages.approve.reason_prompt", "&eOnay nedeni yazın (kısa açıklama):"));
             } else if (pa.type == PendingType.APPROVE_REASON){
-                String reason = e.getMessage();
-                // finalize approval: update rapor, insert log, run commands
-                runAsync(() -> {
-                    try {
-                        // fetch report info
-                        PreparedStatement q = connection.prepareStatement("SELECT * FROM raporlar WHERE id = ?");
-                        q.setInt(1, pa.reportId);
-                        ResultSet r = q.executeQuery();
-                        if (!r.next()) { r.close(); q.close(); runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.not_found", "Rapor bulunamadı."))); return; }
-                        String reported = r.getString("raporlanan");
-                        r.close(); q.close();
-
-                        // update rapor row
-                        PreparedStatement up = connection.prepareStatement("UPDATE raporlar SET durum = ?, ceza = ?, sure = ?, onaylayan = ?, onay_zaman = ? WHERE id = ?");
-                        up.setString(1, "onaylandi");
-                        up.setString(2, pa.ceza==null?"":pa.ceza);
-                        up.setLong(3, pa.durationMillis);
-                        up.setString(4, p.getName());
-                        up.setLong(5, System.currentTimeMillis());
-                        up.setInt(6, pa.reportId);
-                        up.executeUpdate();
-                        up.close();
-
-                        // insert into rapor_logs
-                        PreparedStatement ins = connection.prepareStatement("INSERT INTO rapor_logs (rapor_id, action, yetkili, sebep, sure, ceza, zaman) VALUES (?, ?, ?, ?, ?, ?, ?)");
-                        ins.setInt(1, pa.reportId);
-                        ins.setString(2, "onay");
-                        ins.setString(3, p.getName());
-                        ins.setString(4, reason);
-                        ins.setLong(5, pa.durationMillis);
-                        ins.setString(6, pa.ceza==null?"":pa.ceza);
-                        ins.setLong(7, System.currentTimeMillis());
-                        ins.executeUpdate();
-                        ins.close();
-
-                        // run configured commands
-                        if (approvalCommands != null && !approvalCommands.isEmpty()){
-                            for (String cmdTemplate : approvalCommands){
-                                String cmd = cmdTemplate;
-                                cmd = cmd.replace("%raporlanan%", reported);
-                                cmd = cmd.replace("%onaylayan%", p.getName());
-                                cmd = cmd.replace("%süre%", formatDurationHuman(pa.durationMillis));
-                                cmd = cmd.replace("%ceza-tür%", pa.ceza==null?"ceza":pa.ceza);
-                                final String finalCmd = cmd;
-                                runSync(() -> {
-                                    getServer().dispatchCommand(getServer().getConsoleSender(), finalCmd);
-                                });
-                            }
-                        }
-
-                        runSync(() -> {
-                            p.sendMessage(ChatColor.GREEN + getMsg("messages.approve.success", "Rapor onaylandı ve uygulandı."));
-                        });
-
-                    } catch (Exception ex){
-                        ex.printStackTrace();
-                        runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
-                    }
-                });
-
+                approveReport(p, pa.reportId, pa.durationMillis, pa.ceza, e.getMessage());
             } else if (pa.type == PendingType.REJECT_REASON){
                 String reason = e.getMessage();
                 // finalize rejection
                 runAsync(() -> {
                     try {
-                        PreparedStatement up = connection.prepareStatement("UPDATE raporlar SET durum = ?, onaylayan = ?, onay_zaman = ? WHERE id = ?");
-                        up.setString(1, "reddedildi");
-                        up.setString(2, p.getName());
-                        up.setLong(3, System.currentTimeMillis());
-                        up.setInt(4, pa.reportId);
-                        up.executeUpdate();
-                        up.close();
-
-                        PreparedStatement ins = connection.prepareStatement("INSERT INTO rapor_logs (rapor_id, action, yetkili, sebep, sure, ceza, zaman) VALUES (?, ?, ?, ?, ?, ?, ?)");
-                        ins.setInt(1, pa.reportId);
-                        ins.setString(2, "red");
-                        ins.setString(3, p.getName());
-                        ins.setString(4, reason);
-                        ins.setLong(5, 0);
-                        ins.setString(6, "");
-                        ins.setLong(7, System.currentTimeMillis());
-                        ins.executeUpdate();
-                        ins.close();
+                        boolean rejected = reports.reject(pa.reportId, p.getName(), reason, System.currentTimeMillis());
+                        reportResolved(pa.reportId);
+                        if (!rejected){
+                            runSync(() -> p.sendMessage(getMsg("messages.error.not_pending", "&cBu rapor artık beklemede değil.")));
+                            return;
+                        }
 
                         runSync(() -> p.sendMessage(ChatColor.GREEN + getMsg("messages.reject.success", "Rapor reddedildi ve kaydedildi.")));
                     } catch (Exception ex){
@@ -984,93 +1702,223 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         }
 
         // If no pending action, still log chat into DB
-        // Continue to log chat normally (non-cancelled)
-        // Insert into DB
+        // Continue to log chat normally (non-cancelled): publish into the ring, the drain task writes it
+        chatBuffer.offer(id, e.getMessage(), System.currentTimeMillis());
+    }
+
+    // finalize approval: update rapor, insert log, run commands
+    // (package-private only for the LoadTest harness, src/test)
+    void approveReport(Player p, int reportId, long durationMillis, String ceza, String reason){
         runAsync(() -> {
             try {
-                PreparedStatement ps = connection.prepareStatement("INSERT INTO chatlogs (uuid, mesaj, zaman) VALUES (?, ?, ?)");
-                ps.setString(1, p.getUniqueId().toString());
-                ps.setString(2, e.getMessage());
-                ps.setLong(3, System.currentTimeMillis());
-                ps.executeUpdate();
-                ps.close();
+                // update rapor row + insert into rapor_logs, only while it is still pending
+                ReportRepository.Approval approval = reports.approve(reportId, p.getName(), reason, durationMillis, ceza==null?"":ceza, System.currentTimeMillis());
+                reportResolved(reportId);
+                if (approval == null){
+                    // resolved by someone else meanwhile: no second log row, no second punishment
+                    runSync(() -> p.sendMessage(getMsg("messages.error.not_pending", "&cBu rapor artık beklemede değil.")));
+                    return;
+                }
+                String reported = approval.report.raporlanan;
+                if (approval.punishment != null) schedulePunishment(approval.punishment);
+
+                // run configured commands
+                List<CommandTemplate> approvalCommands = settings.approvalCommands;
+                if (!approvalCommands.isEmpty()){
+                    Map<String, String> values = new HashMap<>();
+                    values.put("raporlanan", reported);
+                    values.put("onaylayan", p.getName());
+                    values.put("süre", formatDurationHuman(durationMillis));
+                    values.put("ceza-tür", ceza==null?"ceza":ceza);
+                    for (CommandTemplate cmdTemplate : approvalCommands){
+                        commands.submit(cmdTemplate.render(values), reported, p.getUniqueId());
+                    }
+                }
+
+                runSync(() -> {
+                    p.sendMessage(ChatColor.GREEN + getMsg("messages.approve.success", "Rapor onaylandı ve uygulandı."));
+                });
+
             } catch (Exception ex){
                 ex.printStackTrace();
+                runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
             }
         });
     }
 
+    // test-only: the LoadTest harness (src/test) waits on it
+    boolean isReady(){
+        return ready;
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent e){
+        names.join(e.getPlayer().getName());
+        staff.join(e.getPlayer());
+    }
+
     // When player quits: remove pending if any to avoid leaked states
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent e){
+        staff.quit(e.getPlayer().getUniqueId());
+        names.quit(e.getPlayer().getName());
+        adminViews.remove(e.getPlayer().getUniqueId());
+        historyViews.remove(e.getPlayer().getUniqueId());
+        detailViews.remove(e.getPlayer().getUniqueId());
         pending.remove(e.getPlayer().getUniqueId());
         reportTargets.remove(e.getPlayer().getUniqueId());
     }
 
+    // async: hand a new report to the digest, with the target's expired-report count if enabled
+    private void queueStaffNotice(String target, String reporter){
+        int expired = 0;
+        if (!dbDown && settings.config.getBoolean("bekleyen-omru.bildirimde-goster", true)){
+            try {
+                expired = reports.profile(target).suresiDolan;
+            } catch (Exception ignored){}
+        }
+        reportDigest.add(target, reporter, expired);
+    }
+
+    // One line per interval: the classic message for a single report, a summary for bursts.
+    private void sendReportDigest(){
+        ReportDigest.Summary s = reportDigest.take();
+        if (s == null || staff.isEmpty()) return;
+        String msg;
+        if (s.adet == 1){
+            msg = getMsg("messages.notify_staff", "&6Yeni rapor: &c{hedef} &7tarafından &e{raporlayan}")
+                    .replace("{hedef}", s.hedef).replace("{raporlayan}", s.raporlayan);
+            if (s.suresiDolan > 0){
+                msg += getMsg("messages.notify_expired_suffix", " &8({suresi_dolan} önceki rapor cevapsız kaldı)")
+                        .replace("{suresi_dolan}", String.valueOf(s.suresiDolan));
+            }
+        } else {
+            msg = getMsg("messages.notify_digest", "&6{adet} yeni rapor &7- en çok raporlanan: &c{hedef} &7({hedef_adet})")
+                    .replace("{adet}", String.valueOf(s.adet)).replace("{hedef}", s.hedef).replace("{hedef_adet}", String.valueOf(s.hedefAdet));
+        }
+        staff.broadcast(msg);
+    }
+
+    // Stop live-updating an admin view once it is closed (opening another page closes it first).
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent e){
+        AdminView view = adminViews.get(e.getPlayer().getUniqueId());
+        if (view != null && view.inv == e.getInventory()) adminViews.remove(e.getPlayer().getUniqueId());
+        AuditView audit = auditViews.get(e.getPlayer().getUniqueId());
+        if (audit != null && audit.inv == e.getInventory()) auditViews.remove(e.getPlayer().getUniqueId());
+        HistoryView history = historyViews.get(e.getPlayer().getUniqueId());
+        if (history != null && history.inv == e.getInventory()) historyViews.remove(e.getPlayer().getUniqueId());
+        DetailView detail = detailViews.get(e.getPlayer().getUniqueId());
+        if (detail != null && detail.inv == e.getInventory()) detailViews.remove(e.getPlayer().getUniqueId());
+    }
+
+    // ---------- Audit GUI ----------
+    // One row more than a page tells whether there is a next one.
+    private List<LogEntry> loadAuditPage(AuditView v, long afterZaman, int afterId) throws Exception {
+        return reports.auditPage(v.yetkili, v.action, v.from, Long.MAX_VALUE, afterZaman, afterId, AUDIT_PAGE_SIZE + 1);
+    }
+
+    private void openAuditGui(Player p, AuditView v){
+        final long afterZaman = v.cursor[0];
+        final int afterId = (int) v.cursor[1];
+        final int page = v.page;
+        final boolean hasPrev = !v.earlier.isEmpty();
+        runAsync(() -> {
+            try {
+                List<LogEntry> rows = loadAuditPage(v, afterZaman, afterId);
+                int shown = Math.min(rows.size(), AUDIT_PAGE_SIZE);
+                int[] ids = new int[AUDIT_PAGE_SIZE];
+                for (int i = 0; i < shown; i++) ids[i] = rows.get(i).raporId;
+                LogEntry last = shown > 0 ? rows.get(shown - 1) : null;
+                long[] next = rows.size() > AUDIT_PAGE_SIZE ? new long[]{last.zaman, last.id} : null;
+                GuiView view = auditGuiView(v, page, rows.subList(0, shown), hasPrev, next != null);
+                // the previous page's close event drops the view, so it is (re)registered after opening
+                runSync(() -> guiRenderer.open(p, view, inv -> {
+                    System.arraycopy(ids, 0, v.slotIds, 0, ids.length);
+                    v.nextCursor = next;
+                    v.inv = inv;
+                    auditViews.put(p.getUniqueId(), v);
+                }));
+            } catch (Exception e){
+                e.printStackTrace();
+                runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
+            }
+        });
+    }
+
+    // any thread
+    private GuiView auditGuiView(AuditView v, int page, List<LogEntry> rows, boolean hasPrev, boolean hasNext){
+        String title = getMsg("gui.audit.title", "&6Denetim: %yetkili% #%page%")
+                .replace("%yetkili%", v.yetkili).replace("%page%", String.valueOf(page + 1));
+        if (title.length() > 32) title = title.substring(0, 32); // 1.8 inventory title limit
+        ItemView[] slots = new ItemView[ADMIN_GUI_SIZE];
+        for (int slot = 0; slot < rows.size(); slot++){
+            LogEntry l = rows.get(slot);
+            Material type = ReportRepository.ACTION_ONAY.equals(l.action) ? Material.EMERALD
+                    : ReportRepository.ACTION_RED.equals(l.action) ? Material.REDSTONE : Material.PAPER;
+            slots[slot] = new ItemView(type, ChatColor.GOLD + "Rapor #" + l.raporId, auditLore(l));
+        }
+        if (hasPrev) slots[45] = new ItemView(Material.ARROW, ChatColor.YELLOW + getMsg("gui.admin.prev", "Önceki"), null);
+        slots[49] = new ItemView(Material.PAPER,
+                ChatColor.GREEN + getMsg("gui.admin.pageinfo", "Sayfa: %page%").replace("%page%", String.valueOf(page + 1)),
+                Arrays.asList(ChatColor.GRAY + "Yetkili: " + v.yetkili,
+                        ChatColor.GRAY + "İşlem: " + (v.action == null ? "hepsi" : v.action),
+                        ChatColor.GRAY + "Başlangıç: " + (v.from > 0 ? timeStampToString(v.from) : "tümü")));
+        if (hasNext) slots[53] = new ItemView(Material.ARROW, ChatColor.YELLOW + getMsg("gui.admin.next", "Sonraki"), null);
+        return new GuiView(title, ADMIN_GUI_SIZE, slots, rows.size());
+    }
+
+    private List<String> auditLore(LogEntry l){
+        List<String> lore = new ArrayList<>();
+        lore.add(ChatColor.GRAY + "İşlem: " + l.action);
+        if (l.raporlanan != null) lore.add(ChatColor.GRAY + "Raporlanan: " + l.raporlanan);
+        lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(l.zaman));
+        if (ReportRepository.ACTION_ONAY.equals(l.action)){
+            lore.add(ChatColor.GRAY + "Süre: " + formatDurationHuman(l.sure));
+            if (l.ceza != null && !l.ceza.isEmpty()) lore.add(ChatColor.GRAY + "Ceza: " + l.ceza);
+        }
+        if (l.sebep != null && !l.sebep.isEmpty()) lore.add(ChatColor.GRAY + "Sebep: " + l.sebep);
+        return lore;
+    }
+
+    // console: first page only, as chat lines
+    private void printAudit(CommandSender sender, AuditView v){
+        runAsync(() -> {
+            try {
+                List<LogEntry> rows = loadAuditPage(v, Long.MAX_VALUE, 0);
+                List<String> lines = new ArrayList<>();
+                lines.add(ChatColor.GOLD + "--- Denetim: " + v.yetkili + " (" + (v.action == null ? "hepsi" : v.action) + ") ---");
+                if (rows.isEmpty()) lines.add(ChatColor.GRAY + "Kayıt yok.");
+                for (int i = 0; i < rows.size() && i < AUDIT_PAGE_SIZE; i++){
+                    LogEntry l = rows.get(i);
+                    lines.add(ChatColor.GRAY + timeStampToString(l.zaman) + " " + ChatColor.YELLOW + l.action
+                            + ChatColor.GRAY + " #" + l.raporId + (l.raporlanan != null ? " " + l.raporlanan : "")
+                            + (l.sebep != null && !l.sebep.isEmpty() ? " - " + l.sebep : ""));
+                }
+                if (rows.size() > AUDIT_PAGE_SIZE) lines.add(ChatColor.GRAY + "... daha eski kayıtlar için oyun içinden bakın.");
+                runSync(() -> { for (String l : lines) sender.sendMessage(l); });
+            } catch (Exception e){
+                e.printStackTrace();
+                runSync(() -> sender.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
+            }
+        });
+    }
+
     // ---------- History GUI ----------
+    private static final int HISTORY_PAGE_SIZE = 45;
+
     private void openHistoryGui(Player p, int page){
-        final int pageSize = 45;
-        final int offset = page * pageSize;
-        final String title = guiHistoryTitle.replace("%page%", String.valueOf(page+1));
+        GuiView cached = historyCache.get(page);
+        if (cached != null){
+            showHistory(p, page, cached);
+            prefetchHistory(page, cached.contentCount);
+            return;
+        }
         runAsync(() -> {
             try {
-                PreparedStatement ps = connection.prepareStatement("SELECT id, raporlayan, raporlanan, zaman, durum FROM raporlar WHERE sunucu = ? ORDER BY zaman DESC LIMIT ? OFFSET ?");
-                ps.setString(1, serverName);
-                ps.setInt(2, pageSize);
-                ps.setInt(3, offset);
-                ResultSet rs = ps.executeQuery();
-                List<Map<String,Object>> rows = new ArrayList<>();
-                while (rs.next()){
-                    Map<String,Object> row = new HashMap<>();
-                    row.put("id", rs.getInt("id"));
-                    row.put("raporlayan", rs.getString("raporlayan"));
-                    row.put("raporlanan", rs.getString("raporlanan"));
-                    row.put("zaman", rs.getLong("zaman"));
-                    row.put("durum", rs.getString("durum"));
-                    rows.add(row);
-                }
-                rs.close(); ps.close();
-                runSync(() -> {
-                    Inventory inv = Bukkit.createInventory(null, ADMIN_GUI_SIZE, title);
-                    int slot = 0;
-                    for (Map<String,Object> r : rows){
-                        int id = (int) r.get("id");
-                        String raporlayan = (String) r.get("raporlayan");
-                        String raporlanan = (String) r.get("raporlanan");
-                        long zaman = (long) r.get("zaman");
-                        String durum = (String) r.get("durum");
-                        ItemStack book = new ItemStack(Material.ENCHANTED_BOOK);
-                        ItemMeta meta = book.getItemMeta();
-                        meta.setDisplayName(ChatColor.GOLD + "Rapor #" + id);
-                        List<String> lore = new ArrayList<>();
-                        lore.add(ChatColor.GRAY + "Raporlayan: " + raporlayan);
-                        lore.add(ChatColor.GRAY + "Raporlanan: " + raporlanan);
-                        lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(zaman));
-                        lore.add(ChatColor.GRAY + "Durum: " + durum);
-                        meta.setLore(lore);
-                        book.setItemMeta(meta);
-                        inv.setItem(slot, book);
-                        slot++;
-                    }
-                    // controls
-                    ItemStack prev = new ItemStack(Material.ARROW);
-                    ItemMeta pm = prev.getItemMeta();
-                    pm.setDisplayName(ChatColor.YELLOW + getMsg("gui.admin.prev", "Önceki"));
-                    prev.setItemMeta(pm);
-                    inv.setItem(45, prev);
-                    ItemStack info = new ItemStack(Material.PAPER);
-                    ItemMeta im = info.getItemMeta();
-                    im.setDisplayName(ChatColor.GREEN + getMsg("gui.admin.pageinfo", "Sayfa: %page%").replace("%page%", String.valueOf(page+1)));
-                    info.setItemMeta(im);
-                    inv.setItem(49, info);
-                    ItemStack next = new ItemStack(Material.ARROW);
-                    ItemMeta nm = next.getItemMeta();
-                    nm.setDisplayName(ChatColor.YELLOW + getMsg("gui.admin.next", "Sonraki"));
-                    next.setItemMeta(nm);
-                    inv.setItem(53, next);
-
-                    p.openInventory(inv);
-                });
+                GuiView view = loadHistoryPage(page);
+                runSync(() -> showHistory(p, page, view));
+                prefetchHistory(page, view.contentCount);
             } catch (Exception e){
                 e.printStackTrace();
                 runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
@@ -1078,6 +1926,55 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         });
     }
 
+    // the previous page's close event drops the view, so it is (re)registered after opening
+    private void showHistory(Player p, int page, GuiView view){
+        boolean hasNext = view.contentCount >= HISTORY_PAGE_SIZE;
+        guiRenderer.open(p, view, inv -> historyViews.put(p.getUniqueId(), new HistoryView(inv, page, hasNext)));
+    }
+
+    private GuiView loadHistoryPage(int page) throws Exception {
+        long gen = historyCache.generation();
+        List<Report> rows = reports.historyPage(settings.serverName, page, HISTORY_PAGE_SIZE);
+        GuiView view = historyGuiView(page, rows);
+        historyCache.putIfCurrent(page, view, gen);
+        return view;
+    }
+
+    // Warm the neighbouring pages while this one is on screen, so prev/next opens from cache.
+    private void prefetchHistory(int page, int shown){
+        final boolean hasNext = shown >= HISTORY_PAGE_SIZE;
+        if (!hasNext && page == 0) return;
+        runAsync(() -> {
+            try {
+                if (hasNext && !historyCache.contains(page + 1)) loadHistoryPage(page + 1);
+                if (page > 0 && !historyCache.contains(page - 1)) loadHistoryPage(page - 1);
+            } catch (Exception e){
+                getLogger().fine("Geçmiş sayfası önceden yüklenemedi: " + e.getMessage());
+            }
+        });
+    }
+
+    // any thread
+    private GuiView historyGuiView(int page, List<Report> rows){
+        final String title = settings.guiHistoryTitle.replace("%page%", String.valueOf(page+1));
+        ItemView[] slots = new ItemView[ADMIN_GUI_SIZE];
+        int slot = 0;
+        for (Report r : rows){
+            if (slot >= HISTORY_PAGE_SIZE) break;
+            List<String> lore = new ArrayList<>(4);
+            lore.add(ChatColor.GRAY + "Raporlayan: " + r.raporlayan);
+            lore.add(ChatColor.GRAY + "Raporlanan: " + r.raporlanan);
+            lore.add(ChatColor.GRAY + "Zaman: " + timeStampToString(r.zaman));
+            lore.add(ChatColor.GRAY + "Durum: " + r.durum);
+            slots[slot++] = new ItemView(Material.ENCHANTED_BOOK, ChatColor.GOLD + "Rapor #" + r.id, lore);
+        }
+        // controls
+        slots[45] = new ItemView(Material.ARROW, ChatColor.YELLOW + getMsg("gui.admin.prev", "Önceki"), null);
+        slots[49] = new ItemView(Material.PAPER, ChatColor.GREEN + getMsg("gui.admin.pageinfo", "Sayfa: %page%").replace("%page%", String.valueOf(page+1)), null);
+        slots[53] = new ItemView(Material.ARROW, ChatColor.YELLOW + getMsg("gui.admin.next", "Sonraki"), null);
+        return new GuiView(title, ADMIN_GUI_SIZE, slots, slot);
+    }
+
     // ---------- Stats GUI ----------
     private void openStatsGui(Player p){
         // show top approvers daily/weekly/monthly
@@ -1087,59 +1984,20 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
                 long dayAgo = now - 24L*60*60*1000;
                 long weekAgo = now - 7L*24*60*60*1000;
                 long monthAgo = now - 30L*24*60*60*1000;
-                // top daily
-                PreparedStatement sd = connection.prepareStatement("SELECT yetkili, COUNT(*) as cnt FROM rapor_logs WHERE action = 'onay' AND zaman >= ? GROUP BY yetkili ORDER BY cnt DESC LIMIT 10");
-                sd.setLong(1, dayAgo);
-                ResultSet rd = sd.executeQuery();
-                List<String> dailyTop = new ArrayList<>();
-                while (rd.next()){
-                    dailyTop.add(rd.getString("yetkili") + " - " + rd.getInt("cnt"));
-                }
-                rd.close(); sd.close();
-                // weekly
-                PreparedStatement sw = connection.prepareStatement("SELECT yetkili, COUNT(*) as cnt FROM rapor_logs WHERE action = 'onay' AND zaman >= ? GROUP BY yetkili ORDER BY cnt DESC LIMIT 10");
-                sw.setLong(1, weekAgo);
-                ResultSet rw = sw.executeQuery();
-                List<String> weekTop = new ArrayList<>();
-                while (rw.next()){
-                    weekTop.add(rw.getString("yetkili") + " - " + rw.getInt("cnt"));
-                }
-                rw.close(); sw.close();
-                // monthly
-                PreparedStatement sm = connection.prepareStatement("SELECT yetkili, COUNT(*) as cnt FROM rapor_logs WHERE action = 'onay' AND zaman >= ? GROUP BY yetkili ORDER BY cnt DESC LIMIT 10");
-                sm.setLong(1, monthAgo);
-                ResultSet rm = sm.executeQuery();
-                List<String> monthTop = new ArrayList<>();
-                while (rm.next()){
-                    monthTop.add(rm.getString("yetkili") + " - " + rm.getInt("cnt"));
-                }
-                rm.close(); sm.close();
-
-                runSync(() -> {
-                    Inventory inv = Bukkit.createInventory(null, 27, guiStatsTitle);
-                    ItemStack daily = new ItemStack(Material.PAPER);
-                    ItemMeta dm = daily.getItemMeta();
-                    dm.setDisplayName(ChatColor.GOLD + "Günlük Top 10");
-                    dm.setLore(stringListToColoredLore(dailyTop));
-                    daily.setItemMeta(dm);
-                    inv.setItem(10, daily);
-
-                    ItemStack weekly = new ItemStack(Material.PAPER);
-                    ItemMeta wm = weekly.getItemMeta();
-                    wm.setDisplayName(ChatColor.GOLD + "Haftalık Top 10");
-                    wm.setLore(stringListToColoredLore(weekTop));
-                    weekly.setItemMeta(wm);
-                    inv.setItem(13, weekly);
-
-                    ItemStack monthly = new ItemStack(Material.PAPER);
-                    ItemMeta mm = monthly.getItemMeta();
-                    mm.setDisplayName(ChatColor.GOLD + "Aylık Top 10");
-                    mm.setLore(stringListToColoredLore(monthTop));
-                    monthly.setItemMeta(mm);
-                    inv.setItem(16, monthly);
-
-                    p.openInventory(inv);
-                });
+                // top daily / weekly / monthly
+                List<String> dailyTop = countsToLines(reports.topActors(ReportRepository.ACTION_ONAY, dayAgo, 10));
+                List<String> weekTop = countsToLines(reports.topActors(ReportRepository.ACTION_ONAY, weekAgo, 10));
+                List<String> monthTop = countsToLines(reports.topActors(ReportRepository.ACTION_ONAY, monthAgo, 10));
+                List<String> volumeLore = volumeLines(settings.serverName, true);
+                volumeLore.remove(0); // title goes into the display name
+
+                ItemView[] slots = new ItemView[27];
+                slots[10] = new ItemView(Material.PAPER, ChatColor.GOLD + "Günlük Top 10", stringListToColoredLore(dailyTop));
+                slots[13] = new ItemView(Material.PAPER, ChatColor.GOLD + "Haftalık Top 10", stringListToColoredLore(weekTop));
+                slots[16] = new ItemView(Material.PAPER, ChatColor.GOLD + "Aylık Top 10", stringListToColoredLore(monthTop));
+                slots[22] = new ItemView(Material.MAP, ChatColor.GOLD + "Rapor Hacmi", volumeLore);
+                GuiView view = new GuiView(settings.guiStatsTitle, 27, slots, 4);
+                runSync(() -> guiRenderer.open(p, view, null));
             } catch (Exception e){
                 e.printStackTrace();
                 runSync(() -> p.sendMessage(ChatColor.RED + getMsg("messages.error.generic", "Bir hata oluştu.")));
@@ -1147,6 +2005,31 @@ public class HyperRapor extends JavaPlugin implements Listener, CommandExecutor
         });
     }
 
+    // async: sparkline of the last 24 hours (or 30 days) plus a 24h category breakdown
+    private List<String> volumeLines(String sunucu, boolean daily) throws Exception {
+        long now = System.currentTimeMillis();
+        List<String> out = new ArrayList<>();
+        out.add(ChatColor.GOLD + "--- Rapor hacmi (" + (sunucu == null ? "tüm sunucular" : sunucu) + ") ---");
+        long[] hours = volume.series(sunucu, ReportVolume.SAAT, 24, now);
+        out.add(ChatColor.GRAY + "Son 24 saat: " + ChatColor.YELLOW + ReportVolume.sparkline(hours)
+                + ChatColor.GRAY + " (" + ReportVolume.sum(hours) + ")");
+        if (daily){
+            long[] days = volume.series(sunucu, ReportVolume.GUN, 30, now);
+            out.add(ChatColor.GRAY + "Son 30 gün: " + ChatColor.YELLOW + ReportVolume.sparkline(days)
+                    + ChatColor.GRAY + " (" + ReportVolume.sum(days) + ")");
+        }
+        List<ReportRepository.Count> cats = volume.categories(sunucu, 24, now);
+        if (cats.isEmpty()) out.add(ChatColor.GRAY + "Kategoriler (24s): veri yok");
+        else out.add(ChatColor.GRAY + "Kategoriler (24s): " + String.join(", ", countsToLines(cats)));
+        return out;
+    }
+
+    private List<String> countsToLines(List<ReportRepository.Count> counts){
+        List<String> out = new ArrayList<>(counts.size());
+        for (ReportRepository.Count c : counts) out.add(c.key + " - " + c.adet);
+        return out;
+    }
+
     private List<String> stringListToColoredLore(List<String> in){
         List<String> out = new ArrayList<>();
         if (in.isEmpty()) out.add(ChatColor.GRAY + "Veri yok.");
@@ -0,0 +1,38 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Fully formatted item (name and lore already colored), built on any thread. Only
+// toItem() touches the Bukkit API, so only it has to run on the main thread.
+final class ItemView {
+    final Material material;
+    final short data;
+    final String name;
+    final List<String> lore;
+
+    ItemView(Material material, String name, List<String> lore){
+        this(material, (short) 0, name, lore);
+    }
+
+    ItemView(Material material, short data, String name, List<String> lore){
+        this.material = material;
+        this.data = data;
+        this.name = name;
+        this.lore = lore == null ? Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<>(lore));
+    }
+
+    ItemStack toItem(){
+        ItemStack it = new ItemStack(material, 1, data);
+        ItemMeta meta = it.getItemMeta();
+        meta.setDisplayName(name);
+        if (!lore.isEmpty()) meta.setLore(lore);
+        it.setItemMeta(meta);
+        return it;
+    }
+}
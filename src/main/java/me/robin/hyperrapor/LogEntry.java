@@ -0,0 +1,26 @@
+package me.robin.hyperrapor;
+
+// One rapor_logs row, plus the reported player of its report (null if that row is gone).
+final class LogEntry {
+    final int id;
+    final int raporId;
+    final String action;
+    final String yetkili;
+    final String sebep;
+    final long sure;
+    final String ceza;
+    final long zaman;
+    final String raporlanan;
+
+    LogEntry(int id, int raporId, String action, String yetkili, String sebep, long sure, String ceza, long zaman, String raporlanan){
+        this.id = id;
+        this.raporId = raporId;
+        this.action = action;
+        this.yetkili = yetkili;
+        this.sebep = sebep;
+        this.sure = sure;
+        this.ceza = ceza;
+        this.zaman = zaman;
+        this.raporlanan = raporlanan;
+    }
+}
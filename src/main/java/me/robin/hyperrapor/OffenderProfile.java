@@ -0,0 +1,35 @@
+package me.robin.hyperrapor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Aggregated report history of one reported player (rapor_profilleri + rapor_profil_kategorileri).
+final class OffenderProfile {
+    final String raporlanan;
+    final int toplam;
+    final int bekleyen;
+    final int onaylanan;
+    final int reddedilen;
+    final int suresiDolan; // expired without a staff decision
+    final String sonCeza;  // null until the first approval
+    final long sonSure;
+    final long sonZaman;
+    final Map<String, Integer> kategoriler = new LinkedHashMap<>(); // most reported first
+
+    OffenderProfile(String raporlanan, int toplam, int bekleyen, int onaylanan, int reddedilen, int suresiDolan,
+                    String sonCeza, long sonSure, long sonZaman){
+        this.raporlanan = raporlanan;
+        this.toplam = toplam;
+        this.bekleyen = bekleyen;
+        this.onaylanan = onaylanan;
+        this.reddedilen = reddedilen;
+        this.suresiDolan = suresiDolan;
+        this.sonCeza = sonCeza;
+        this.sonSure = sonSure;
+        this.sonZaman = sonZaman;
+    }
+
+    static OffenderProfile empty(String raporlanan){
+        return new OffenderProfile(raporlanan, 0, 0, 0, 0, 0, null, 0, 0);
+    }
+}
@@ -0,0 +1,88 @@
+package me.robin.hyperrapor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// In-memory copy of this server's pending ("bekliyor") reports, oldest first, so
+// admin pages and live views never have to re-query raporlar. Loaded once at
+// startup and then kept current by report insert / resolve events.
+final class PendingQueue {
+
+    private final TreeSet<Report> ordered = new TreeSet<>((a, b) -> {
+        int c = Long.compare(a.zaman, b.zaman);
+        return c != 0 ? c : Integer.compare(a.id, b.id);
+    });
+    private final Map<Integer, Report> byId = new HashMap<>();
+    // events seen while a resync query runs (null otherwise); the query may have missed them
+    private Map<Integer, Report> syncAdded;
+    private Set<Integer> syncRemoved;
+
+    // Resync from the DB: beginResync() before the query, then finishResync(rows) with its
+    // result, or cancelResync() when it failed. One resync at a time.
+    synchronized void beginResync(){
+        syncAdded = new HashMap<>();
+        syncRemoved = new HashSet<>();
+    }
+
+    synchronized void cancelResync(){
+        syncAdded = null;
+        syncRemoved = null;
+    }
+
+    // Replaces the contents with rows plus the adds / minus the removes made since
+    // beginResync(), and returns the result.
+    synchronized List<Report> finishResync(Collection<Report> rows){
+        ordered.clear();
+        byId.clear();
+        for (Report r : rows) if (!syncRemoved.contains(r.id)) put(r);
+        for (Report r : syncAdded.values()) put(r);
+        cancelResync();
+        return new ArrayList<>(ordered);
+    }
+
+    synchronized void add(Report r){
+        if (syncAdded != null){
+            syncAdded.put(r.id, r);
+            syncRemoved.remove(r.id);
+        }
+        put(r);
+    }
+
+    synchronized boolean remove(int id){
+        if (syncAdded != null){
+            syncAdded.remove(id);
+            syncRemoved.add(id);
+        }
+        Report r = byId.remove(id);
+        if (r == null) return false;
+        ordered.remove(r);
+        return true;
+    }
+
+    private void put(Report r){
+        Report old = byId.put(r.id, r);
+        if (old != null) ordered.remove(old);
+        ordered.add(r);
+    }
+
+    synchronized List<Report> snapshot(){
+        return new ArrayList<>(ordered);
+    }
+
+    synchronized List<Report> page(int page, int pageSize){
+        List<Report> out = new ArrayList<>(pageSize);
+        int skip = page * pageSize;
+        if (skip >= ordered.size()) return out;
+        Iterator<Report> it = ordered.iterator();
+        while (skip-- > 0) it.next();
+        while (it.hasNext() && out.size() < pageSize) out.add(it.next());
+        return out;
+    }
+}
@@ -0,0 +1,114 @@
+package me.robin.hyperrapor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Case-insensitive prefix trie of online players plus the most recently seen offline ones,
+// for /rapor tab completion and target validation. A lookup walks prefix-length nodes and
+// then at most `limit` names, independent of how many players are indexed. Main thread only.
+final class PlayerNameIndex {
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        String name; // canonical spelling when a player ends here
+    }
+
+    private final Node root = new Node();
+    private int maxRecent;
+    // offline names, least recently seen first
+    private final LinkedHashMap<String, String> recent = new LinkedHashMap<>();
+
+    PlayerNameIndex(int maxRecent){
+        this.maxRecent = Math.max(0, maxRecent);
+    }
+
+    void join(String name){
+        recent.remove(key(name));
+        Node n = insert(name);
+        n.name = name;
+    }
+
+    void quit(String name){
+        Node n = find(key(name));
+        if (n == null || n.name == null) return;
+        if (maxRecent == 0){
+            remove(key(name));
+            return;
+        }
+        recent.put(key(name), n.name);
+        trim();
+    }
+
+    void setMaxRecent(int maxRecent){
+        this.maxRecent = Math.max(0, maxRecent);
+        trim();
+    }
+
+    private void trim(){
+        Iterator<Map.Entry<String, String>> it = recent.entrySet().iterator();
+        while (recent.size() > maxRecent){
+            String oldest = it.next().getKey();
+            it.remove();
+            remove(oldest);
+        }
+    }
+
+    // Canonical spelling of an indexed name, or null.
+    String resolve(String name){
+        Node n = find(key(name));
+        return n == null ? null : n.name;
+    }
+
+    // Up to `limit` names starting with prefix, alphabetical.
+    List<String> complete(String prefix, int limit){
+        List<String> out = new ArrayList<>(Math.min(limit, 16));
+        Node n = find(key(prefix));
+        if (n != null) collect(n, out, limit);
+        return out;
+    }
+
+    private static void collect(Node n, List<String> out, int limit){
+        if (n.name != null) out.add(n.name);
+        for (Node c : n.children.values()){
+            if (out.size() >= limit) return;
+            collect(c, out, limit);
+        }
+    }
+
+    private Node insert(String name){
+        Node n = root;
+        String k = key(name);
+        for (int i = 0; i < k.length(); i++) n = n.children.computeIfAbsent(k.charAt(i), ch -> new Node());
+        return n;
+    }
+
+    private Node find(String k){
+        Node n = root;
+        for (int i = 0; i < k.length() && n != null; i++) n = n.children.get(k.charAt(i));
+        return n;
+    }
+
+    // unlinks the name and prunes now-empty branches
+    private void remove(String k){
+        Node[] path = new Node[k.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < k.length(); i++){
+            path[i + 1] = path[i].children.get(k.charAt(i));
+            if (path[i + 1] == null) return;
+        }
+        Node end = path[k.length()];
+        end.name = null;
+        for (int i = k.length(); i > 0; i--){
+            if (path[i].name != null || !path[i].children.isEmpty()) break;
+            path[i - 1].children.remove(k.charAt(i - 1));
+        }
+    }
+
+    private static String key(String name){
+        return name.toLowerCase(java.util.Locale.ROOT);
+    }
+}
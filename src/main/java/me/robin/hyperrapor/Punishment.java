@@ -0,0 +1,20 @@
+package me.robin.hyperrapor;
+
+// One row of aktif_cezalar: a timed punishment handed out by an approval.
+final class Punishment {
+    final int id;
+    final int raporId;
+    final String raporlanan;
+    final String ceza;
+    final String sunucu;
+    final long bitis;
+
+    Punishment(int id, int raporId, String raporlanan, String ceza, String sunucu, long bitis){
+        this.id = id;
+        this.raporId = raporId;
+        this.raporlanan = raporlanan;
+        this.ceza = ceza;
+        this.sunucu = sunucu;
+        this.bitis = bitis;
+    }
+}
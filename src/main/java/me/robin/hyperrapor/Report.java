@@ -0,0 +1,31 @@
+package me.robin.hyperrapor;
+
+// One row of raporlar.
+final class Report {
+    final int id;
+    final String raporlayan;
+    final String raporlanan;
+    final String sunucu;
+    final long zaman;
+    final String durum;
+    final String sebep;
+    final String ceza;
+    final long sure;
+    final String onaylayan;
+    final long onayZaman;
+
+    Report(int id, String raporlayan, String raporlanan, String sunucu, long zaman, String durum,
+           String sebep, String ceza, long sure, String onaylayan, long onayZaman){
+        this.id = id;
+        this.raporlayan = raporlayan;
+        this.raporlanan = raporlanan;
+        this.sunucu = sunucu;
+        this.zaman = zaman;
+        this.durum = durum;
+        this.sebep = sebep;
+        this.ceza = ceza;
+        this.sure = sure;
+        this.onaylayan = onaylayan;
+        this.onayZaman = onayZaman;
+    }
+}
@@ -0,0 +1,52 @@
+package me.robin.hyperrapor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Collects new-report events between notification ticks so a flood turns into one
+// summary line per interval ("12 yeni rapor, en çok: X (7)") instead of a line per report.
+// Written from async report threads, taken from the main thread.
+final class ReportDigest {
+
+    static final class Summary {
+        final int adet;
+        final String hedef;      // most reported target in the interval
+        final int hedefAdet;
+        final String raporlayan; // reporter of the last report (used when adet == 1)
+        final int suresiDolan;   // earlier expired reports on that target (used when adet == 1)
+        Summary(int adet, String hedef, int hedefAdet, String raporlayan, int suresiDolan){
+            this.adet = adet; this.hedef = hedef; this.hedefAdet = hedefAdet; this.raporlayan = raporlayan; this.suresiDolan = suresiDolan;
+        }
+    }
+
+    private final Map<String, Integer> perTarget = new HashMap<>();
+    private int adet;
+    private String lastReporter;
+    private int lastExpired;
+
+    synchronized void add(String hedef, String raporlayan, int suresiDolan){
+        perTarget.merge(hedef, 1, Integer::sum);
+        adet++;
+        lastReporter = raporlayan;
+        lastExpired = suresiDolan;
+    }
+
+    // null when nothing arrived since the last call
+    synchronized Summary take(){
+        if (adet == 0) return null;
+        String top = null;
+        int topAdet = 0;
+        for (Map.Entry<String, Integer> e : perTarget.entrySet()){
+            if (e.getValue() > topAdet){
+                top = e.getKey();
+                topAdet = e.getValue();
+            }
+        }
+        Summary s = new Summary(adet, top, topAdet, lastReporter, lastExpired);
+        perTarget.clear();
+        adet = 0;
+        lastReporter = null;
+        lastExpired = 0;
+        return s;
+    }
+}
@@ -0,0 +1,779 @@
+package me.robin.hyperrapor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Typed access to raporlar, rapor_logs, rapor_profilleri and chatlogs. Statements come
+// from the Database's per-connection cache; rows are mapped by column index. The coded
+// report / log columns are translated through the Dictionary here, so callers only see
+// strings. Codes for values being written are resolved before the transaction opens.
+final class ReportRepository {
+
+    static final String DURUM_BEKLIYOR = "bekliyor";
+    static final String DURUM_ONAYLANDI = "onaylandi";
+    static final String DURUM_REDDEDILDI = "reddedildi";
+    static final String DURUM_SURESI_DOLDU = "suresi_doldu";
+
+    // aktif_cezalar.durum
+    static final String CEZA_AKTIF = "aktif";
+    static final String CEZA_BITTI = "bitti";
+    static final String CEZA_IPTAL = "iptal";
+
+    static final String ACTION_ONAY = "onay";
+    static final String ACTION_RED = "red";
+    static final String ACTION_ZAMAN_ASIMI = "zaman_asimi"; // one log row per expiry batch
+
+    // profile category for free-text ("other") reasons
+    static final String KATEGORI_DIGER = "Diğer";
+
+    // staff name + number of actions, for leaderboards
+    static final class Count {
+        final String key;
+        final int adet;
+        Count(String key, int adet){ this.key = key; this.adet = adet; }
+    }
+
+    // approve(): the report as it was while pending, and its timed punishment (or null)
+    static final class Approval {
+        final Report report;
+        final Punishment punishment;
+        Approval(Report report, Punishment punishment){ this.report = report; this.punishment = punishment; }
+    }
+
+    private static final String REPORT_COLUMNS = "id, raporlayan, raporlanan, sunucu, zaman, durum, sebep, ceza, sure, onaylayan, onay_zaman";
+
+    private static final String SQL_INSERT_REPORT =
+            "INSERT INTO raporlar (raporlayan, raporlanan, sunucu, zaman, durum, sebep) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_FIND_REPORT =
+            "SELECT " + REPORT_COLUMNS + " FROM raporlar WHERE id = ?";
+    private static final String SQL_PAGE_BY_STATUS =
+            "SELECT " + REPORT_COLUMNS + " FROM raporlar WHERE sunucu = ? AND durum = ? ORDER BY zaman ASC LIMIT ? OFFSET ?";
+    private static final String SQL_ALL_BY_STATUS =
+            "SELECT " + REPORT_COLUMNS + " FROM raporlar WHERE sunucu = ? AND durum = ? ORDER BY zaman ASC";
+    private static final String SQL_HISTORY_PAGE =
+            "SELECT " + REPORT_COLUMNS + " FROM raporlar WHERE sunucu = ? ORDER BY zaman DESC, id DESC LIMIT ?";
+    private static final String SQL_FIND_REPORT_ARCHIVE = archived(SQL_FIND_REPORT);
+    private static final String SQL_HISTORY_PAGE_ARCHIVE = archived(SQL_HISTORY_PAGE);
+    private static final String SQL_APPROVE =
+            "UPDATE raporlar SET durum = ?, ceza = ?, sure = ?, onaylayan = ?, onay_zaman = ? WHERE id = ? AND durum = ?";
+    private static final String SQL_REJECT =
+            "UPDATE raporlar SET durum = ?, onaylayan = ?, onay_zaman = ? WHERE id = ? AND durum = ?";
+    private static final String SQL_INSERT_LOG =
+            "INSERT INTO rapor_logs (rapor_id, action, yetkili, sebep, sure, ceza, zaman) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // hot and archived logs: the archive cutoff (arsiv.gun) may be shorter than a stats window
+    private static final String SQL_TOP_ACTORS =
+            "SELECT yetkili, COUNT(*) AS cnt FROM (" +
+            "SELECT yetkili FROM rapor_logs WHERE action = ? AND zaman >= ? UNION ALL " +
+            "SELECT yetkili FROM rapor_logs_arsiv WHERE action = ? AND zaman >= ?" +
+            ") l GROUP BY yetkili ORDER BY cnt DESC LIMIT ?";
+    // walks idx_logs_yetkili_zaman_id backwards from the cursor; the raporlar join is by
+    // primary key for the page's rows only. Archived logs join the archived reports.
+    private static final String SQL_AUDIT_PAGE_BASE =
+            "SELECT l.id, l.rapor_id, l.action, l.yetkili, l.sebep, l.sure, l.ceza, l.zaman, r.raporlanan " +
+            "FROM rapor_logs l LEFT JOIN raporlar r ON r.id = l.rapor_id " +
+            "WHERE l.yetkili = ? AND l.zaman >= ? AND l.zaman < ? AND (l.zaman < ? OR (l.zaman = ? AND l.id < ?))";
+    private static final String SQL_AUDIT_PAGE =
+            SQL_AUDIT_PAGE_BASE + " ORDER BY l.zaman DESC, l.id DESC LIMIT ?";
+    private static final String SQL_AUDIT_PAGE_ACTION =
+            SQL_AUDIT_PAGE_BASE + " AND l.action = ? ORDER BY l.zaman DESC, l.id DESC LIMIT ?";
+    private static final String SQL_AUDIT_PAGE_ARCHIVE = archived(SQL_AUDIT_PAGE);
+    private static final String SQL_AUDIT_PAGE_ACTION_ARCHIVE = archived(SQL_AUDIT_PAGE_ACTION);
+    private static final String SQL_INSERT_CHAT =
+            "INSERT INTO chatlogs (uuid, mesaj, zaman) VALUES (?, ?, ?)";
+    private static final String SQL_CHAT_BETWEEN =
+            "SELECT mesaj, zaman FROM chatlogs WHERE uuid = ? AND zaman BETWEEN ? AND ? ORDER BY zaman ASC";
+
+    // profile upserts: the only dialect-specific statements
+    private static final String SQL_PROFILE_NEW_MYSQL =
+            "INSERT INTO rapor_profilleri (raporlanan, toplam, bekleyen) VALUES (?, 1, 1) " +
+            "ON DUPLICATE KEY UPDATE toplam = toplam + 1, bekleyen = bekleyen + 1";
+    private static final String SQL_PROFILE_NEW_SQLITE =
+            "INSERT INTO rapor_profilleri (raporlanan, toplam, bekleyen) VALUES (?, 1, 1) " +
+            "ON CONFLICT(raporlanan) DO UPDATE SET toplam = toplam + 1, bekleyen = bekleyen + 1";
+    private static final String SQL_PROFILE_CATEGORY_MYSQL =
+            "INSERT INTO rapor_profil_kategorileri (raporlanan, kategori, adet) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE adet = adet + VALUES(adet)";
+    private static final String SQL_PROFILE_CATEGORY_SQLITE =
+            "INSERT INTO rapor_profil_kategorileri (raporlanan, kategori, adet) VALUES (?, ?, ?) " +
+            "ON CONFLICT(raporlanan, kategori) DO UPDATE SET adet = adet + excluded.adet";
+    private static final String SQL_INSERT_PUNISHMENT =
+            "INSERT INTO aktif_cezalar (rapor_id, raporlanan, ceza, sunucu, baslangic, bitis, durum) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String PUNISHMENT_COLUMNS = "id, rapor_id, raporlanan, ceza, sunucu, bitis";
+    // served by idx_ceza_sunucu_durum_bitis
+    private static final String SQL_PUNISHMENTS_ENDING =
+            "SELECT " + PUNISHMENT_COLUMNS + " FROM aktif_cezalar WHERE sunucu = ? AND durum = ? AND bitis >= ? AND bitis < ? ORDER BY bitis ASC";
+    private static final String SQL_PUNISHMENTS_OF_TARGET =
+            "SELECT " + PUNISHMENT_COLUMNS + " FROM aktif_cezalar WHERE raporlanan = ? AND sunucu = ? AND durum = ?";
+    private static final String SQL_CLOSE_PUNISHMENT =
+            "UPDATE aktif_cezalar SET durum = ? WHERE id = ? AND durum = ?";
+    private static final String SQL_PROFILE_APPROVED =
+            "UPDATE rapor_profilleri SET bekleyen = bekleyen - 1, onaylanan = onaylanan + 1, son_ceza = ?, son_sure = ?, son_zaman = ? WHERE raporlanan = ?";
+    private static final String SQL_PROFILE_REJECTED =
+            "UPDATE rapor_profilleri SET bekleyen = bekleyen - 1, reddedilen = reddedilen + 1 WHERE raporlanan = ?";
+    private static final String SQL_PROFILE_EXPIRED =
+            "UPDATE rapor_profilleri SET bekleyen = bekleyen - ?, suresi_dolan = suresi_dolan + ? WHERE raporlanan = ?";
+    private static final String SQL_PROFILE =
+            "SELECT toplam, bekleyen, onaylanan, reddedilen, suresi_dolan, son_ceza, son_sure, son_zaman FROM rapor_profilleri WHERE raporlanan = ?";
+    // oldest first, served by idx_rapor_sunucu_durum_zaman
+    private static final String SQL_EXPIRE_SELECT =
+            "SELECT id, raporlanan FROM raporlar WHERE sunucu = ? AND durum = ? AND zaman < ? ORDER BY zaman ASC LIMIT ?";
+    private static final String SQL_EXPIRE_UPDATE =
+            "UPDATE raporlar SET durum = ?, onaylayan = ?, onay_zaman = ? WHERE id = ? AND durum = ?";
+    // archiving: reports of one server resolved before the cutoff, then a copy +
+    // delete per report id (rapor_logs rows found through idx_logs_rapor_id). The newest
+    // row of raporlar and of rapor_logs always stays hot: InnoDB before MySQL 8.0 recomputes
+    // AUTO_INCREMENT as MAX(id) + 1 on restart, which would hand out archived ids again.
+    private static final String SQL_ARCHIVE_SELECT =
+            "SELECT id FROM raporlar WHERE sunucu = ? AND durum IN (?, ?, ?) AND onay_zaman < ?" +
+            " AND id < (SELECT MAX(id) FROM raporlar)" +
+            " AND id <> COALESCE((SELECT rapor_id FROM rapor_logs WHERE id = (SELECT MAX(id) FROM rapor_logs)), 0) LIMIT ?";
+    private static final String SQL_ARCHIVE_COPY_REPORT =
+            "INSERT INTO raporlar_arsiv (" + REPORT_COLUMNS + ") SELECT " + REPORT_COLUMNS + " FROM raporlar WHERE id = ?";
+    private static final String SQL_ARCHIVE_COPY_LOGS =
+            "INSERT INTO rapor_logs_arsiv (id, rapor_id, action, yetkili, sebep, sure, ceza, zaman) " +
+            "SELECT id, rapor_id, action, yetkili, sebep, sure, ceza, zaman FROM rapor_logs WHERE rapor_id = ?";
+    private static final String SQL_ARCHIVE_DELETE_LOGS = "DELETE FROM rapor_logs WHERE rapor_id = ?";
+    private static final String SQL_ARCHIVE_DELETE_REPORT = "DELETE FROM raporlar WHERE id = ?";
+    private static final String SQL_PROFILE_CATEGORIES =
+            "SELECT kategori, adet FROM rapor_profil_kategorileri WHERE raporlanan = ? ORDER BY adet DESC";
+
+    private final Database db;
+    private final Dictionary dict;
+    private final String sqlProfileNew;
+    private final String sqlProfileCategory;
+    private volatile Set<String> categories = new HashSet<>();
+    private final TtlCache<String, OffenderProfile> profiles = new TtlCache<>(256, 60_000L);
+
+    ReportRepository(Database db){
+        this.db = db;
+        this.dict = new Dictionary(db);
+        boolean mysql = db.dialect() == Database.Dialect.MYSQL;
+        this.sqlProfileNew = mysql ? SQL_PROFILE_NEW_MYSQL : SQL_PROFILE_NEW_SQLITE;
+        this.sqlProfileCategory = mysql ? SQL_PROFILE_CATEGORY_MYSQL : SQL_PROFILE_CATEGORY_SQLITE;
+    }
+
+    // Report reasons that count as their own profile category; anything else is "Diğer".
+    void setCategories(Collection<String> list){
+        categories = new HashSet<>(list);
+    }
+
+    String categoryOf(String sebep){
+        return sebep != null && categories.contains(sebep) ? sebep : KATEGORI_DIGER;
+    }
+
+    void loadDictionary() throws SQLException {
+        dict.load();
+    }
+
+    // ---------- raporlar ----------
+    int insertReport(String raporlayan, String raporlanan, String sunucu, long zaman, String sebep) throws SQLException {
+        int sunucuCode = dict.code(sunucu);
+        int bekliyor = dict.code(DURUM_BEKLIYOR);
+        int id = db.transaction(c -> {
+            PreparedStatement ps = db.prepareWithKeys(c, SQL_INSERT_REPORT);
+            bindNewReport(ps, raporlayan, raporlanan, sunucuCode, zaman, bekliyor, sebep);
+            ps.executeUpdate();
+            int newId;
+            try (ResultSet keys = ps.getGeneratedKeys()){
+                newId = keys != null && keys.next() ? keys.getInt(1) : -1;
+            }
+            PreparedStatement pr = db.prepare(c, sqlProfileNew);
+            pr.setString(1, raporlanan);
+            pr.executeUpdate();
+            PreparedStatement pc = db.prepare(c, sqlProfileCategory);
+            pc.setString(1, raporlanan);
+            pc.setString(2, categoryOf(sebep));
+            pc.setInt(3, 1);
+            pc.executeUpdate();
+            return newId;
+        });
+        profiles.remove(raporlanan);
+        return id;
+    }
+
+    // Batch insert of new pending reports (journal replay); ids are not returned.
+    void insertReports(List<Report> list) throws SQLException {
+        if (list.isEmpty()) return;
+        int[] sunucuCodes = new int[list.size()];
+        for (int i = 0; i < sunucuCodes.length; i++) sunucuCodes[i] = dict.code(list.get(i).sunucu);
+        int bekliyor = dict.code(DURUM_BEKLIYOR);
+        db.transaction(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_INSERT_REPORT);
+            PreparedStatement pr = db.prepare(c, sqlProfileNew);
+            PreparedStatement pc = db.prepare(c, sqlProfileCategory);
+            for (int i = 0; i < sunucuCodes.length; i++){
+                Report r = list.get(i);
+                bindNewReport(ps, r.raporlayan, r.raporlanan, sunucuCodes[i], r.zaman, bekliyor, r.sebep);
+                ps.addBatch();
+                pr.setString(1, r.raporlanan);
+                pr.addBatch();
+                pc.setString(1, r.raporlanan);
+                pc.setString(2, categoryOf(r.sebep));
+                pc.setInt(3, 1);
+                pc.addBatch();
+            }
+            ps.executeBatch();
+            pr.executeBatch();
+            pc.executeBatch();
+            return null;
+        });
+        for (Report r : list) profiles.remove(r.raporlanan);
+    }
+
+    private static void bindNewReport(PreparedStatement ps, String raporlayan, String raporlanan, int sunucu, long zaman, int durum, String sebep) throws SQLException {
+        ps.setString(1, raporlayan);
+        ps.setString(2, raporlanan);
+        ps.setInt(3, sunucu);
+        ps.setLong(4, zaman);
+        ps.setInt(5, durum);
+        ps.setString(6, sebep);
+    }
+
+    // Falls back to raporlar_arsiv, so archived reports still open by id.
+    Report findById(int id) throws SQLException {
+        return db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_FIND_REPORT);
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()){
+                if (rs.next()) return mapReport(c, rs);
+            }
+            PreparedStatement pa = db.prepare(c, SQL_FIND_REPORT_ARCHIVE);
+            pa.setInt(1, id);
+            try (ResultSet rs = pa.executeQuery()){
+                return rs.next() ? mapReport(c, rs) : null;
+            }
+        });
+    }
+
+    List<Report> pageByStatus(String sunucu, String durum, int page, int pageSize) throws SQLException {
+        return db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_PAGE_BY_STATUS);
+            ps.setInt(1, dict.lookup(c, sunucu));
+            ps.setInt(2, dict.lookup(c, durum));
+            ps.setInt(3, pageSize);
+            ps.setInt(4, page * pageSize);
+            return mapReports(c, ps, pageSize);
+        });
+    }
+
+    List<Report> allByStatus(String sunucu, String durum) throws SQLException {
+        return db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_ALL_BY_STATUS);
+            ps.setInt(1, dict.lookup(c, sunucu));
+            ps.setInt(2, dict.lookup(c, durum));
+            return mapReports(c, ps, 64);
+        });
+    }
+
+    // Newest first across raporlar and raporlar_arsiv: the first (page + 1) * pageSize rows
+    // of each are merged, then the page is cut out of the merged order.
+    List<Report> historyPage(String sunucu, int page, int pageSize) throws SQLException {
+        int n = (page + 1) * pageSize;
+        return db.read(c -> {
+            int sunucuCode = dict.lookup(c, sunucu);
+            PreparedStatement ps = db.prepare(c, SQL_HISTORY_PAGE);
+            ps.setInt(1, sunucuCode);
+            ps.setInt(2, n);
+            List<Report> all = mapReports(c, ps, n);
+            PreparedStatement pa = db.prepare(c, SQL_HISTORY_PAGE_ARCHIVE);
+            pa.setInt(1, sunucuCode);
+            pa.setInt(2, n);
+            all.addAll(mapReports(c, pa, n));
+            all.sort((a, b) -> a.zaman != b.zaman ? Long.compare(b.zaman, a.zaman) : Integer.compare(b.id, a.id));
+            int from = Math.min(page * pageSize, all.size());
+            return new ArrayList<>(all.subList(from, Math.min(from + pageSize, all.size())));
+        });
+    }
+
+    // Marks the report approved, logs the action, updates the target's profile and, for a
+    // timed punishment (sure > 0), records it in aktif_cezalar, atomically. Returns null,
+    // writing nothing, when the report is not pending (any more).
+    Approval approve(int id, String yetkili, String sebep, long sure, String ceza, long now) throws SQLException {
+        int onaylandi = dict.code(DURUM_ONAYLANDI);
+        int bekliyor = dict.code(DURUM_BEKLIYOR);
+        int cezaCode = dict.code(ceza);
+        int yetkiliCode = dict.code(yetkili);
+        int action = dict.code(ACTION_ONAY);
+        Punishment[] created = new Punishment[1];
+        Report approved = db.transaction(c -> {
+            Report pendingReport = pendingReport(c, id);
+            if (pendingReport == null) return null;
+            PreparedStatement up = db.prepare(c, SQL_APPROVE);
+            up.setInt(1, onaylandi);
+            up.setInt(2, cezaCode);
+            up.setLong(3, sure);
+            up.setString(4, yetkili);
+            up.setLong(5, now);
+            up.setInt(6, id);
+            up.setInt(7, bekliyor);
+            if (up.executeUpdate() == 0) return null; // resolved concurrently
+            String target = pendingReport.raporlanan;
+            if (target != null){
+                PreparedStatement pr = db.prepare(c, SQL_PROFILE_APPROVED);
+                pr.setString(1, ceza);
+                pr.setLong(2, sure);
+                pr.setLong(3, now);
+                pr.setString(4, target);
+                pr.executeUpdate();
+            }
+            insertLog(c, id, action, yetkiliCode, sebep, sure, cezaCode, now);
+            if (target != null && sure > 0){
+                PreparedStatement pc = db.prepareWithKeys(c, SQL_INSERT_PUNISHMENT);
+                pc.setInt(1, id);
+                pc.setString(2, target);
+                pc.setString(3, ceza);
+                pc.setString(4, pendingReport.sunucu);
+                pc.setLong(5, now);
+                pc.setLong(6, now + sure);
+                pc.setString(7, CEZA_AKTIF);
+                pc.executeUpdate();
+                try (ResultSet keys = pc.getGeneratedKeys()){
+                    if (keys != null && keys.next()){
+                        created[0] = new Punishment(keys.getInt(1), id, target, ceza, pendingReport.sunucu, now + sure);
+                    }
+                }
+            }
+            return pendingReport;
+        });
+        if (approved == null) return null;
+        if (approved.raporlanan != null) profiles.remove(approved.raporlanan);
+        return new Approval(approved, created[0]);
+    }
+
+    // Marks the report rejected, logs the action and updates the target's profile, atomically.
+    // False, writing nothing, when the report is not pending (any more).
+    boolean reject(int id, String yetkili, String sebep, long now) throws SQLException {
+        int reddedildi = dict.code(DURUM_REDDEDILDI);
+        int bekliyor = dict.code(DURUM_BEKLIYOR);
+        int yetkiliCode = dict.code(yetkili);
+        int action = dict.code(ACTION_RED);
+        int bos = dict.code("");
+        Report rejected = db.transaction(c -> {
+            Report pendingReport = pendingReport(c, id);
+            if (pendingReport == null) return null;
+            PreparedStatement up = db.prepare(c, SQL_REJECT);
+            up.setInt(1, reddedildi);
+            up.setString(2, yetkili);
+            up.setLong(3, now);
+            up.setInt(4, id);
+            up.setInt(5, bekliyor);
+            if (up.executeUpdate() == 0) return null; // resolved concurrently
+            if (pendingReport.raporlanan != null){
+                PreparedStatement pr = db.prepare(c, SQL_PROFILE_REJECTED);
+                pr.setString(1, pendingReport.raporlanan);
+                pr.executeUpdate();
+            }
+            insertLog(c, id, action, yetkiliCode, sebep, 0, bos, now);
+            return pendingReport;
+        });
+        if (rejected == null) return false;
+        if (rejected.raporlanan != null) profiles.remove(rejected.raporlanan);
+        return true;
+    }
+
+    // The report if it is still pending, else null (profile counts move only once).
+    private Report pendingReport(java.sql.Connection c, int id) throws SQLException {
+        PreparedStatement ps = db.prepare(c, SQL_FIND_REPORT);
+        ps.setInt(1, id);
+        try (ResultSet rs = ps.executeQuery()){
+            if (!rs.next()) return null;
+            Report r = mapReport(c, rs);
+            return DURUM_BEKLIYOR.equals(r.durum) ? r : null;
+        }
+    }
+
+    // ---------- aktif_cezalar ----------
+    // Active punishments of one server ending in [from, to), soonest first.
+    List<Punishment> punishmentsEnding(String sunucu, long from, long to) throws SQLException {
+        return db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_PUNISHMENTS_ENDING);
+            ps.setString(1, sunucu);
+            ps.setString(2, CEZA_AKTIF);
+            ps.setLong(3, from);
+            ps.setLong(4, to);
+            return mapPunishments(ps);
+        });
+    }
+
+    List<Punishment> activePunishments(String sunucu, String raporlanan) throws SQLException {
+        return db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_PUNISHMENTS_OF_TARGET);
+            ps.setString(1, raporlanan);
+            ps.setString(2, sunucu);
+            ps.setString(3, CEZA_AKTIF);
+            return mapPunishments(ps);
+        });
+    }
+
+    // Moves still-active punishments to durum (CEZA_BITTI / CEZA_IPTAL) and returns the ids
+    // this call actually closed, so with a shared MySQL only one server acts on each.
+    List<Integer> closePunishments(List<Integer> ids, String durum) throws SQLException {
+        if (ids.isEmpty()) return new ArrayList<>();
+        return db.transaction(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_CLOSE_PUNISHMENT);
+            for (int pid : ids){
+                ps.setString(1, durum);
+                ps.setInt(2, pid);
+                ps.setString(3, CEZA_AKTIF);
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            List<Integer> closed = new ArrayList<>(ids.size());
+            for (int i = 0; i < counts.length; i++) if (counts[i] > 0) closed.add(ids.get(i));
+            return closed;
+        });
+    }
+
+    private static List<Punishment> mapPunishments(PreparedStatement ps) throws SQLException {
+        List<Punishment> out = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()){
+            while (rs.next()){
+                out.add(new Punishment(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getLong(6)));
+            }
+        }
+        return out;
+    }
+
+    // Moves up to `limit` of the oldest pending reports created before `cutoff` to
+    // suresi_doldu in one transaction, with a single rapor_logs row for the batch.
+    // Returns the expired ids (empty when nothing was due).
+    List<Integer> expireBatch(String sunucu, long cutoff, int limit, String yetkili, long now) throws SQLException {
+        int sunucuCode = dict.code(sunucu);
+        int bekliyor = dict.code(DURUM_BEKLIYOR);
+        int suresiDoldu = dict.code(DURUM_SURESI_DOLDU);
+        int yetkiliCode = dict.code(yetkili);
+        int action = dict.code(ACTION_ZAMAN_ASIMI);
+        int bos = dict.code("");
+        Map<String, Integer> perTarget = new HashMap<>();
+        List<Integer> ids = db.transaction(c -> {
+            PreparedStatement sel = db.prepare(c, SQL_EXPIRE_SELECT);
+            sel.setInt(1, sunucuCode);
+            sel.setInt(2, bekliyor);
+            sel.setLong(3, cutoff);
+            sel.setInt(4, limit);
+            List<Integer> candidates = new ArrayList<>(limit);
+            List<String> targets = new ArrayList<>(limit);
+            try (ResultSet rs = sel.executeQuery()){
+                while (rs.next()){
+                    candidates.add(rs.getInt(1));
+                    targets.add(rs.getString(2));
+                }
+            }
+            if (candidates.isEmpty()) return candidates;
+            PreparedStatement up = db.prepare(c, SQL_EXPIRE_UPDATE);
+            for (int id : candidates){
+                up.setInt(1, suresiDoldu);
+                up.setString(2, yetkili);
+                up.setLong(3, now);
+                up.setInt(4, id);
+                up.setInt(5, bekliyor);
+                up.addBatch();
+            }
+            int[] counts = up.executeBatch();
+            // a report resolved since the SELECT fails the durum guard and is left alone
+            List<Integer> found = new ArrayList<>(candidates.size());
+            for (int i = 0; i < counts.length; i++){
+                if (counts[i] <= 0) continue;
+                found.add(candidates.get(i));
+                String t = targets.get(i);
+                if (t != null) perTarget.merge(t, 1, Integer::sum);
+            }
+            if (found.isEmpty()) return found;
+            PreparedStatement pr = db.prepare(c, SQL_PROFILE_EXPIRED);
+            for (Map.Entry<String, Integer> e : perTarget.entrySet()){
+                pr.setInt(1, e.getValue());
+                pr.setInt(2, e.getValue());
+                pr.setString(3, e.getKey());
+                pr.addBatch();
+            }
+            pr.executeBatch();
+            insertLog(c, found.get(0), action, yetkiliCode,
+                    found.size() + " rapor (#" + found.get(0) + " .. #" + found.get(found.size() - 1) + ")", 0, bos, now);
+            return found;
+        });
+        for (String t : perTarget.keySet()) profiles.remove(t);
+        return ids;
+    }
+
+    // ---------- archive ----------
+    // Moves up to `limit` reports of one server resolved before `cutoff`, with their
+    // rapor_logs rows, into raporlar_arsiv / rapor_logs_arsiv in one transaction. Ids and
+    // columns are kept as they are, so reads fall through by id or time. Returns rows moved.
+    int archiveBatch(String sunucu, long cutoff, int limit) throws SQLException {
+        int sunucuCode = dict.code(sunucu);
+        int onaylandi = dict.code(DURUM_ONAYLANDI);
+        int reddedildi = dict.code(DURUM_REDDEDILDI);
+        int suresiDoldu = dict.code(DURUM_SURESI_DOLDU);
+        return db.transaction(c -> {
+            PreparedStatement sel = db.prepare(c, SQL_ARCHIVE_SELECT);
+            sel.setInt(1, sunucuCode);
+            sel.setInt(2, onaylandi);
+            sel.setInt(3, reddedildi);
+            sel.setInt(4, suresiDoldu);
+            sel.setLong(5, cutoff);
+            sel.setInt(6, limit);
+            List<Integer> ids = new ArrayList<>(limit);
+            try (ResultSet rs = sel.executeQuery()){
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+            if (ids.isEmpty()) return 0;
+            for (String sql : new String[]{SQL_ARCHIVE_COPY_REPORT, SQL_ARCHIVE_COPY_LOGS, SQL_ARCHIVE_DELETE_LOGS, SQL_ARCHIVE_DELETE_REPORT}){
+                PreparedStatement ps = db.prepare(c, sql);
+                for (int id : ids){
+                    ps.setInt(1, id);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return ids.size();
+        });
+    }
+
+    // Same statement against the archive tables.
+    private static String archived(String sql){
+        return sql.replace("FROM raporlar ", "FROM raporlar_arsiv ")
+                .replace("FROM rapor_logs ", "FROM rapor_logs_arsiv ")
+                .replace("JOIN raporlar ", "JOIN raporlar_arsiv ");
+    }
+
+    // ---------- rapor_profilleri ----------
+    OffenderProfile profile(String raporlanan) throws SQLException {
+        OffenderProfile cached = profiles.get(raporlanan);
+        if (cached != null) return cached;
+        long gen = profiles.generation();
+        OffenderProfile p = db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_PROFILE);
+            ps.setString(1, raporlanan);
+            OffenderProfile out;
+            try (ResultSet rs = ps.executeQuery()){
+                if (!rs.next()) return OffenderProfile.empty(raporlanan);
+                out = new OffenderProfile(raporlanan, rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                        rs.getString(6), rs.getLong(7), rs.getLong(8));
+            }
+            PreparedStatement pk = db.prepare(c, SQL_PROFILE_CATEGORIES);
+            pk.setString(1, raporlanan);
+            try (ResultSet rs = pk.executeQuery()){
+                while (rs.next()) out.kategoriler.put(rs.getString(1), rs.getInt(2));
+            }
+            return out;
+        });
+        profiles.putIfCurrent(raporlanan, p, gen);
+        return p;
+    }
+
+    // One-off rebuild of the profile tables from raporlar, when they are still empty
+    // (first start after upgrading). Returns the number of profiles created.
+    int backfillProfiles() throws SQLException {
+        int existing = db.read(c -> {
+            try (java.sql.Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM rapor_profilleri")){
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+        if (existing > 0) return 0;
+        int bekliyor = dict.code(DURUM_BEKLIYOR);
+        int onaylandi = dict.code(DURUM_ONAYLANDI);
+        int reddedildi = dict.code(DURUM_REDDEDILDI);
+        int suresiDoldu = dict.code(DURUM_SURESI_DOLDU);
+        int created = db.transaction(c -> {
+            int n;
+            try (java.sql.Statement st = c.createStatement()){
+                n = st.executeUpdate("INSERT INTO rapor_profilleri (raporlanan, toplam, bekleyen, onaylanan, reddedilen, suresi_dolan) " +
+                        "SELECT raporlanan, COUNT(*)," +
+                        " SUM(CASE WHEN durum = " + bekliyor + " THEN 1 ELSE 0 END)," +
+                        " SUM(CASE WHEN durum = " + onaylandi + " THEN 1 ELSE 0 END)," +
+                        " SUM(CASE WHEN durum = " + reddedildi + " THEN 1 ELSE 0 END)," +
+                        " SUM(CASE WHEN durum = " + suresiDoldu + " THEN 1 ELSE 0 END)" +
+                        " FROM raporlar WHERE raporlanan IS NOT NULL GROUP BY raporlanan");
+                if (n == 0) return 0;
+                // last punishment: keep the newest approval per target
+                PreparedStatement last = db.prepare(c, "UPDATE rapor_profilleri SET son_ceza = ?, son_sure = ?, son_zaman = ? WHERE raporlanan = ?");
+                try (ResultSet rs = st.executeQuery("SELECT raporlanan, ceza, sure, onay_zaman FROM raporlar WHERE durum = " + onaylandi + " ORDER BY onay_zaman DESC")){
+                    Set<String> seen = new HashSet<>();
+                    while (rs.next()){
+                        if (rs.getString(1) == null || !seen.add(rs.getString(1))) continue;
+                        last.setString(1, dict.value(c, rs.getInt(2)));
+                        last.setLong(2, rs.getLong(3));
+                        last.setLong(3, rs.getLong(4));
+                        last.setString(4, rs.getString(1));
+                        last.addBatch();
+                    }
+                }
+                last.executeBatch();
+                // reasons are folded into categories in Java ("other" texts become Diğer)
+                Map<String, Map<String, Integer>> perTarget = new HashMap<>();
+                try (ResultSet rs = st.executeQuery("SELECT raporlanan, sebep, COUNT(*) FROM raporlar WHERE raporlanan IS NOT NULL GROUP BY raporlanan, sebep")){
+                    while (rs.next()){
+                        perTarget.computeIfAbsent(rs.getString(1), k -> new HashMap<>())
+                                .merge(categoryOf(rs.getString(2)), rs.getInt(3), Integer::sum);
+                    }
+                }
+                PreparedStatement pc = db.prepare(c, sqlProfileCategory);
+                for (Map.Entry<String, Map<String, Integer>> t : perTarget.entrySet()){
+                    for (Map.Entry<String, Integer> k : t.getValue().entrySet()){
+                        pc.setString(1, t.getKey());
+                        pc.setString(2, k.getKey());
+                        pc.setInt(3, k.getValue());
+                        pc.addBatch();
+                    }
+                }
+                pc.executeBatch();
+            }
+            return n;
+        });
+        profiles.clear();
+        return created;
+    }
+
+    // action, yetkili and ceza are sozluk codes
+    private void insertLog(java.sql.Connection c, int raporId, int action, int yetkili, String sebep, long sure, int ceza, long zaman) throws SQLException {
+        PreparedStatement ins = db.prepare(c, SQL_INSERT_LOG);
+        ins.setInt(1, raporId);
+        ins.setInt(2, action);
+        ins.setInt(3, yetkili);
+        ins.setString(4, sebep);
+        ins.setLong(5, sure);
+        ins.setInt(6, ceza);
+        ins.setLong(7, zaman);
+        ins.executeUpdate();
+    }
+
+    // ---------- rapor_logs ----------
+    // One staff member's actions in [from, to), newest first. Seek pagination: pass the
+    // (zaman, id) of the last row shown as the cursor, or afterZaman = Long.MAX_VALUE for
+    // the first page; cost stays flat however deep the page. action == null means all.
+    // Reads the hot and archive tables with the same cursor and merges the two pages.
+    List<LogEntry> auditPage(String yetkili, String action, long from, long to,
+                             long afterZaman, int afterId, int limit) throws SQLException {
+        return db.read(c -> {
+            int yetkiliCode = dict.lookupIgnoreCase(c, yetkili);
+            int actionCode = action == null ? Dictionary.NONE : dict.lookup(c, action);
+            if (yetkiliCode == Dictionary.UNKNOWN || actionCode == Dictionary.UNKNOWN) return new ArrayList<>();
+            List<LogEntry> out = auditPage(c, action == null ? SQL_AUDIT_PAGE : SQL_AUDIT_PAGE_ACTION,
+                    yetkiliCode, actionCode, from, to, afterZaman, afterId, limit);
+            out.addAll(auditPage(c, action == null ? SQL_AUDIT_PAGE_ARCHIVE : SQL_AUDIT_PAGE_ACTION_ARCHIVE,
+                    yetkiliCode, actionCode, from, to, afterZaman, afterId, limit));
+            out.sort((a, b) -> a.zaman != b.zaman ? Long.compare(b.zaman, a.zaman) : Integer.compare(b.id, a.id));
+            return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+        });
+    }
+
+    // actionCode == Dictionary.NONE: sql has no action filter
+    private List<LogEntry> auditPage(java.sql.Connection c, String sql, int yetkili, int actionCode, long from, long to,
+                                     long afterZaman, int afterId, int limit) throws SQLException {
+        PreparedStatement ps = db.prepare(c, sql);
+        int i = 1;
+        ps.setInt(i++, yetkili);
+        ps.setLong(i++, from);
+        ps.setLong(i++, to);
+        ps.setLong(i++, afterZaman);
+        ps.setLong(i++, afterZaman);
+        ps.setInt(i++, afterId);
+        if (actionCode != Dictionary.NONE) ps.setInt(i++, actionCode);
+        ps.setInt(i, limit);
+        List<LogEntry> out = new ArrayList<>(limit);
+        try (ResultSet rs = ps.executeQuery()){
+            while (rs.next()){
+                out.add(new LogEntry(rs.getInt(1), rs.getInt(2), dict.value(c, rs.getInt(3)), dict.value(c, rs.getInt(4)), rs.getString(5),
+                        rs.getLong(6), dict.value(c, rs.getInt(7)), rs.getLong(8), rs.getString(9)));
+            }
+        }
+        return out;
+    }
+
+    List<Count> topActors(String action, long since, int limit) throws SQLException {
+        return db.read(c -> {
+            // grouped on the yetkili code; only the top rows are decoded
+            PreparedStatement ps = db.prepare(c, SQL_TOP_ACTORS);
+            int actionCode = dict.lookup(c, action);
+            ps.setInt(1, actionCode);
+            ps.setLong(2, since);
+            ps.setInt(3, actionCode);
+            ps.setLong(4, since);
+            ps.setInt(5, limit);
+            List<Count> out = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()) out.add(new Count(dict.value(c, rs.getInt(1)), rs.getInt(2)));
+            }
+            return out;
+        });
+    }
+
+    // ---------- chatlogs ----------
+    void insertChat(UUID[] uuids, String[] mesajlar, long[] zamanlar, int count) throws SQLException {
+        if (count == 0) return;
+        db.transaction(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_INSERT_CHAT);
+            for (int i = 0; i < count; i++){
+                ps.setString(1, uuids[i].toString());
+                ps.setString(2, mesajlar[i]);
+                ps.setLong(3, zamanlar[i]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return null;
+        });
+    }
+
+    void insertChat(List<ChatLine> lines) throws SQLException {
+        if (lines.isEmpty()) return;
+        db.transaction(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_INSERT_CHAT);
+            for (ChatLine l : lines){
+                ps.setString(1, l.uuid.toString());
+                ps.setString(2, l.mesaj);
+                ps.setLong(3, l.zaman);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return null;
+        });
+    }
+
+    List<ChatLine> chatBetween(UUID uuid, long from, long to) throws SQLException {
+        return db.read(c -> {
+            PreparedStatement ps = db.prepare(c, SQL_CHAT_BETWEEN);
+            ps.setString(1, uuid.toString());
+            ps.setLong(2, from);
+            ps.setLong(3, to);
+            List<ChatLine> out = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()) out.add(new ChatLine(uuid, rs.getString(1), rs.getLong(2)));
+            }
+            return out;
+        });
+    }
+
+    // ---------- mapping ----------
+    private List<Report> mapReports(java.sql.Connection c, PreparedStatement ps, int expected) throws SQLException {
+        List<Report> out = new ArrayList<>(expected);
+        try (ResultSet rs = ps.executeQuery()){
+            while (rs.next()) out.add(mapReport(c, rs));
+        }
+        return out;
+    }
+
+    // column order = REPORT_COLUMNS; sunucu, durum and ceza are decoded
+    private Report mapReport(java.sql.Connection c, ResultSet rs) throws SQLException {
+        return new Report(
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                dict.value(c, rs.getInt(4)),
+                rs.getLong(5),
+                dict.value(c, rs.getInt(6)),
+                rs.getString(7),
+                dict.value(c, rs.getInt(8)),
+                rs.getLong(9),
+                rs.getString(10),
+                rs.getLong(11));
+    }
+}
@@ -0,0 +1,211 @@
+package me.robin.hyperrapor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Report volume time series in rapor_hacmi. New reports bump an hourly bucket in memory;
+// flush() adds the deltas to the table with one upsert per bucket. Hourly rows older than
+// the retention window are folded into daily rows (olcek = 24). Charts read buckets only,
+// never raporlar.
+final class ReportVolume {
+
+    static final int SAAT = 1;
+    static final int GUN = 24;
+    private static final long HOUR_MS = 3_600_000L;
+
+    private static final String SPARK = "▁▂▃▄▅▆▇█";
+
+    private static final String SQL_UPSERT_MYSQL =
+            "INSERT INTO rapor_hacmi (olcek, kova, sunucu, kategori, adet) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE adet = adet + VALUES(adet)";
+    private static final String SQL_UPSERT_SQLITE =
+            "INSERT INTO rapor_hacmi (olcek, kova, sunucu, kategori, adet) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT(olcek, kova, sunucu, kategori) DO UPDATE SET adet = adet + excluded.adet";
+
+    private static final class Key {
+        final long kova; // hour number since epoch
+        final String sunucu;
+        final String kategori;
+        Key(long kova, String sunucu, String kategori){ this.kova = kova; this.sunucu = sunucu; this.kategori = kategori; }
+        @Override public boolean equals(Object o){
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return kova == k.kova && sunucu.equals(k.sunucu) && kategori.equals(k.kategori);
+        }
+        @Override public int hashCode(){
+            return (Long.hashCode(kova) * 31 + sunucu.hashCode()) * 31 + kategori.hashCode();
+        }
+    }
+
+    private final Database db;
+    private final String sqlUpsert;
+    private Map<Key, Integer> pending = new HashMap<>(); // guarded by this
+
+    ReportVolume(Database db){
+        this.db = db;
+        this.sqlUpsert = db.dialect() == Database.Dialect.MYSQL ? SQL_UPSERT_MYSQL : SQL_UPSERT_SQLITE;
+    }
+
+    static long hourOf(long zaman){
+        return zaman / HOUR_MS;
+    }
+
+    synchronized void record(String sunucu, String kategori, long zaman){
+        pending.merge(new Key(hourOf(zaman), sunucu, kategori), 1, Integer::sum);
+    }
+
+    void flush() throws SQLException {
+        Map<Key, Integer> batch;
+        synchronized (this){
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            db.transaction(c -> {
+                PreparedStatement ps = db.prepare(c, sqlUpsert);
+                for (Map.Entry<Key, Integer> e : batch.entrySet()){
+                    ps.setInt(1, SAAT);
+                    ps.setLong(2, e.getKey().kova);
+                    ps.setString(3, e.getKey().sunucu);
+                    ps.setString(4, e.getKey().kategori);
+                    ps.setInt(5, e.getValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return null;
+            });
+        } catch (SQLException e){
+            // keep the counts for the next attempt
+            synchronized (this){
+                for (Map.Entry<Key, Integer> en : batch.entrySet()) pending.merge(en.getKey(), en.getValue(), Integer::sum);
+            }
+            throw e;
+        }
+    }
+
+    // Folds whole days of this server's hourly rows older than keepDays into daily rows.
+    // Each server only sweeps its own rows, so servers sharing a MySQL database never fold
+    // the same hours twice; FOR UPDATE also holds off a second sweep under the same name.
+    // Returns rows folded.
+    int downsample(String sunucu, int keepDays, long now) throws SQLException {
+        long cutoffHour = (hourOf(now) / GUN - Math.max(1, keepDays)) * GUN;
+        String lock = db.dialect() == Database.Dialect.MYSQL ? " FOR UPDATE" : "";
+        return db.transaction(c -> {
+            Map<Key, Integer> daily = new HashMap<>();
+            int rows = 0;
+            PreparedStatement sel = db.prepare(c, "SELECT kova, sunucu, kategori, adet FROM rapor_hacmi WHERE olcek = ? AND sunucu = ? AND kova < ?" + lock);
+            sel.setInt(1, SAAT);
+            sel.setString(2, sunucu);
+            sel.setLong(3, cutoffHour);
+            try (ResultSet rs = sel.executeQuery()){
+                while (rs.next()){
+                    daily.merge(new Key(rs.getLong(1) / GUN, rs.getString(2), rs.getString(3)), rs.getInt(4), Integer::sum);
+                    rows++;
+                }
+            }
+            if (rows == 0) return 0;
+            PreparedStatement up = db.prepare(c, sqlUpsert);
+            for (Map.Entry<Key, Integer> e : daily.entrySet()){
+                up.setInt(1, GUN);
+                up.setLong(2, e.getKey().kova);
+                up.setString(3, e.getKey().sunucu);
+                up.setString(4, e.getKey().kategori);
+                up.setInt(5, e.getValue());
+                up.addBatch();
+            }
+            up.executeBatch();
+            PreparedStatement del = db.prepare(c, "DELETE FROM rapor_hacmi WHERE olcek = ? AND sunucu = ? AND kova < ?");
+            del.setInt(1, SAAT);
+            del.setString(2, sunucu);
+            del.setLong(3, cutoffHour);
+            del.executeUpdate();
+            return rows;
+        });
+    }
+
+    // Counts for the last `points` buckets of the given scale (SAAT or GUN), oldest first.
+    // sunucu == null means all servers. Daily series also pick up hourly rows not yet folded.
+    long[] series(String sunucu, int olcek, int points, long now) throws SQLException {
+        long last = hourOf(now) / olcek;
+        long first = last - points + 1;
+        long[] out = new long[points];
+        db.read(c -> {
+            String sql = "SELECT olcek, kova, SUM(adet) FROM rapor_hacmi WHERE olcek = ? AND kova BETWEEN ? AND ?"
+                    + (sunucu == null ? "" : " AND sunucu = ?") + " GROUP BY olcek, kova";
+            PreparedStatement ps = db.prepare(c, sql);
+            for (int scale : olcek == GUN ? new int[]{SAAT, GUN} : new int[]{SAAT}){
+                ps.setInt(1, scale);
+                ps.setLong(2, first * olcek / scale);
+                ps.setLong(3, (last + 1) * olcek / scale - 1);
+                if (sunucu != null) ps.setString(4, sunucu);
+                try (ResultSet rs = ps.executeQuery()){
+                    while (rs.next()){
+                        long idx = rs.getLong(2) * rs.getInt(1) / olcek - first;
+                        if (idx >= 0 && idx < points) out[(int) idx] += rs.getLong(3);
+                    }
+                }
+            }
+            return null;
+        });
+        synchronized (this){
+            for (Map.Entry<Key, Integer> e : pending.entrySet()){
+                if (sunucu != null && !sunucu.equals(e.getKey().sunucu)) continue;
+                long idx = e.getKey().kova / olcek - first;
+                if (idx >= 0 && idx < points) out[(int) idx] += e.getValue();
+            }
+        }
+        return out;
+    }
+
+    // Per-category totals over the last `hours` hours, largest first.
+    List<ReportRepository.Count> categories(String sunucu, int hours, long now) throws SQLException {
+        long from = hourOf(now) - hours + 1;
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        db.read(c -> {
+            String sql = "SELECT kategori, SUM(adet) FROM rapor_hacmi WHERE olcek = ? AND kova >= ?"
+                    + (sunucu == null ? "" : " AND sunucu = ?") + " GROUP BY kategori";
+            PreparedStatement ps = db.prepare(c, sql);
+            ps.setInt(1, SAAT);
+            ps.setLong(2, from);
+            if (sunucu != null) ps.setString(3, sunucu);
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()) totals.merge(rs.getString(1), rs.getInt(2), Integer::sum);
+            }
+            return null;
+        });
+        synchronized (this){
+            for (Map.Entry<Key, Integer> e : pending.entrySet()){
+                if (e.getKey().kova < from || (sunucu != null && !sunucu.equals(e.getKey().sunucu))) continue;
+                totals.merge(e.getKey().kategori, e.getValue(), Integer::sum);
+            }
+        }
+        List<ReportRepository.Count> out = new ArrayList<>(totals.size());
+        for (Map.Entry<String, Integer> e : totals.entrySet()) out.add(new ReportRepository.Count(e.getKey(), e.getValue()));
+        out.sort((a, b) -> Integer.compare(b.adet, a.adet));
+        return out;
+    }
+
+    static String sparkline(long[] values){
+        long max = 0;
+        for (long v : values) max = Math.max(max, v);
+        StringBuilder sb = new StringBuilder(values.length);
+        for (long v : values){
+            int level = max == 0 ? 0 : (int) (v * (SPARK.length() - 1) / max);
+            sb.append(SPARK.charAt(level));
+        }
+        return sb.toString();
+    }
+
+    static long sum(long[] values){
+        long s = 0;
+        for (long v : values) s += v;
+        return s;
+    }
+}
@@ -0,0 +1,125 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Immutable snapshot of config.yml + messages.yml. Built off the main thread and swapped
+// in as a whole by /raporlar reload, so a task that reads `settings` once sees one
+// consistent version. The two YamlConfigurations are never modified after load.
+final class Settings {
+
+    private static final List<String> DEFAULT_CATEGORIES = Arrays.asList("Küfür/Hakaret", "Hile", "Spam/Flood", "Reklam", "Diğer");
+
+    final YamlConfiguration config;
+    final YamlConfiguration messages;
+
+    final String serverName;
+    final int dailyLimit;
+    final int cooldownMinutes;
+    final int messagesToShow;
+    final List<CommandTemplate> approvalCommands;
+    private final List<CommandTemplate> punishmentEndCommands;
+    private final Map<String, List<CommandTemplate>> punishmentEndCommandsByType;
+    final String adminPermission;
+    final List<String> categories;
+
+    // GUI titles and button names (color codes applied)
+    final String guiReportTitle;
+    final String guiAdminTitle;
+    final String guiDetailTitle;
+    final String guiDetailApprove;
+    final String guiDetailReject;
+    final String guiDetailApproveLore;
+    final String guiDetailRejectLore;
+    final String guiHistoryTitle;
+    final String guiStatsTitle;
+
+    // translated message templates, filled on first use
+    private final Map<String, String> messageCache = new ConcurrentHashMap<>();
+
+    private Settings(YamlConfiguration config, YamlConfiguration messages){
+        this.config = config;
+        this.messages = messages;
+
+        serverName = config.getString("server-name", "Sunucu");
+        dailyLimit = config.getInt("limits.dailyReports", 5);
+        cooldownMinutes = config.getInt("limits.cooldownMinutes", 10);
+        messagesToShow = config.getInt("messagesToShow", 5);
+        List<CommandTemplate> cmds = new ArrayList<>();
+        for (String c : config.getStringList("onay-komutlari")) cmds.add(new CommandTemplate(c));
+        approvalCommands = Collections.unmodifiableList(cmds);
+        punishmentEndCommands = templates(config.getStringList("ceza-bitis.komutlar"));
+        Map<String, List<CommandTemplate>> byType = new HashMap<>();
+        ConfigurationSection types = config.getConfigurationSection("ceza-bitis.turler");
+        if (types != null){
+            for (String type : types.getKeys(false)) byType.put(type.toLowerCase(Locale.ROOT), templates(types.getStringList(type)));
+        }
+        punishmentEndCommandsByType = Collections.unmodifiableMap(byType);
+        adminPermission = config.getString("admin-permission", "hyperrapor.staff");
+
+        List<String> c = messages.getConfigurationSection("categories") != null ? messages.getStringList("categories.list") : null;
+        categories = Collections.unmodifiableList(c != null && !c.isEmpty() ? new ArrayList<>(c) : DEFAULT_CATEGORIES);
+
+        guiReportTitle = msg("gui.report.title", "&cRapor Kategorisi Seç");
+        guiAdminTitle = msg("gui.admin.title", "&cBekleyen Raporlar - Sayfa");
+        guiDetailTitle = msg("gui.detail.title", "&6Rapor Detayı #");
+        guiDetailApprove = msg("gui.detail.approve", "✔ Onayla");
+        guiDetailReject = msg("gui.detail.reject", "✖ Reddet");
+        guiDetailApproveLore = msg("gui.detail.approve.lore", "Raporu onaylamak için tıklayın.");
+        guiDetailRejectLore = msg("gui.detail.reject.lore", "Raporu reddetmek için tıklayın.");
+        guiHistoryTitle = msg("gui.history.title", "&6Geçmiş Raporlar - Sayfa %page%");
+        guiStatsTitle = msg("gui.stats.title", "&eRapor İstatistikleri");
+    }
+
+    // Reads both files from disk; safe to call from any thread. A YAML error is thrown
+    // instead of falling back to an empty config (every key at its default).
+    static Settings load(File dataFolder) throws IOException, InvalidConfigurationException {
+        return new Settings(read(new File(dataFolder, "config.yml")), read(new File(dataFolder, "messages.yml")));
+    }
+
+    private static YamlConfiguration read(File file) throws IOException, InvalidConfigurationException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (InvalidConfigurationException e){
+            throw new InvalidConfigurationException(file.getName() + ": " + e.getMessage());
+        }
+        return yaml;
+    }
+
+    // Commands run when a timed punishment of this type ends; ceza-bitis.turler.<tür>
+    // overrides the ceza-bitis.komutlar default.
+    List<CommandTemplate> punishmentEndCommands(String ceza){
+        List<CommandTemplate> t = ceza == null ? null : punishmentEndCommandsByType.get(ceza.toLowerCase(Locale.ROOT));
+        return t != null ? t : punishmentEndCommands;
+    }
+
+    private static List<CommandTemplate> templates(List<String> lines){
+        List<CommandTemplate> out = new ArrayList<>(lines.size());
+        for (String l : lines) out.add(new CommandTemplate(l));
+        return Collections.unmodifiableList(out);
+    }
+
+    String msg(String path, String def){
+        String key = path + '\u0000' + def;
+        String v = messageCache.get(key);
+        if (v == null){
+            v = ChatColor.translateAlternateColorCodes('&', messages.getString(path, def));
+            messageCache.put(key, v);
+        }
+        return v;
+    }
+}
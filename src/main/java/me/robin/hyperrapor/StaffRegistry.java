@@ -0,0 +1,47 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Online players holding the staff permission, kept current on join/quit and by a slow
+// periodic recheck (Bukkit has no permission-change event). Notifications iterate this
+// instead of every online player. Main thread only.
+final class StaffRegistry {
+
+    private final Map<UUID, Player> online = new LinkedHashMap<>();
+    private String permission;
+
+    StaffRegistry(String permission){
+        this.permission = permission;
+    }
+
+    void setPermission(String permission){
+        this.permission = permission;
+    }
+
+    void join(Player p){
+        if (p.hasPermission(permission)) online.put(p.getUniqueId(), p);
+    }
+
+    void quit(UUID uuid){
+        online.remove(uuid);
+    }
+
+    // Full rescan, for permission changes made while the player is online.
+    void recheck(Collection<? extends Player> players){
+        online.clear();
+        for (Player p : players) join(p);
+    }
+
+    boolean isEmpty(){
+        return online.isEmpty();
+    }
+
+    void broadcast(String message){
+        for (Player p : online.values()) p.sendMessage(message);
+    }
+}
@@ -0,0 +1,83 @@
+package me.robin.hyperrapor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hashed timing wheel of punishments, one slot per second. Each slot is an intrusive
+// doubly-linked list, so add and cancel are O(1); advance() only touches the slot(s) that
+// became due. Entries further out than one revolution carry a round counter.
+// Main thread only.
+final class TimingWheel {
+
+    private static final class Entry {
+        final Punishment p;
+        int slot;
+        long rounds;
+        Entry prev, next;
+        Entry(Punishment p){ this.p = p; }
+    }
+
+    private final Entry[] heads;
+    private final long slotMillis;
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private int cursor;      // slot that fires on the next advance
+    private long cursorTime; // wall-clock end of the cursor slot
+
+    TimingWheel(int slots, long slotMillis, long now){
+        this.heads = new Entry[Math.max(8, slots)];
+        this.slotMillis = Math.max(1, slotMillis);
+        this.cursorTime = now + this.slotMillis;
+    }
+
+    // false if this punishment is already scheduled
+    boolean add(Punishment p){
+        if (byId.containsKey(p.id)) return false;
+        long ticks = Math.max(0, (p.bitis - cursorTime + slotMillis - 1) / slotMillis);
+        Entry e = new Entry(p);
+        e.slot = (int) ((cursor + ticks) % heads.length);
+        e.rounds = ticks / heads.length;
+        e.next = heads[e.slot];
+        if (e.next != null) e.next.prev = e;
+        heads[e.slot] = e;
+        byId.put(p.id, e);
+        return true;
+    }
+
+    Punishment cancel(int id){
+        Entry e = byId.remove(id);
+        if (e == null) return null;
+        unlink(e);
+        return e.p;
+    }
+
+    // Moves the cursor up to `now` and returns what became due, in slot order.
+    List<Punishment> advance(long now){
+        List<Punishment> due = new ArrayList<>();
+        while (cursorTime <= now){
+            Entry e = heads[cursor];
+            while (e != null){
+                Entry next = e.next;
+                if (e.rounds == 0){
+                    unlink(e);
+                    byId.remove(e.p.id);
+                    due.add(e.p);
+                } else {
+                    e.rounds--;
+                }
+                e = next;
+            }
+            cursor = (cursor + 1) % heads.length;
+            cursorTime += slotMillis;
+        }
+        return due;
+    }
+
+    private void unlink(Entry e){
+        if (e.prev != null) e.prev.next = e.next;
+        else heads[e.slot] = e.next;
+        if (e.next != null) e.next.prev = e.prev;
+        e.prev = e.next = null;
+    }
+}
@@ -0,0 +1,73 @@
+package me.robin.hyperrapor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Small LRU map whose entries also expire after a fixed time. Used for GUI pages and
+// report details. Every invalidation bumps a generation counter; loaders take the
+// generation before querying and store with putIfCurrent, so a result computed before
+// an invalidation is never cached after it.
+final class TtlCache<K, V> {
+
+    private static final class Slot<V> {
+        final V value;
+        final long expires;
+        Slot(V value, long expires){ this.value = value; this.expires = expires; }
+    }
+
+    private int maxSize;
+    private long ttlMillis;
+    private final LinkedHashMap<K, Slot<V>> map;
+    private long generation;
+
+    TtlCache(int maxSize, long ttlMillis){
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.map = new LinkedHashMap<K, Slot<V>>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Slot<V>> eldest){
+                return size() > TtlCache.this.maxSize;
+            }
+        };
+    }
+
+    // new limits apply to an empty cache
+    synchronized void resize(int maxSize, long ttlMillis){
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        clear();
+    }
+
+    synchronized V get(K key){
+        Slot<V> e = map.get(key);
+        if (e == null) return null;
+        if (e.expires < System.currentTimeMillis()){
+            map.remove(key);
+            return null;
+        }
+        return e.value;
+    }
+
+    synchronized boolean contains(K key){
+        return get(key) != null;
+    }
+
+    synchronized long generation(){
+        return generation;
+    }
+
+    synchronized void putIfCurrent(K key, V value, long gen){
+        if (gen != generation || ttlMillis <= 0) return;
+        map.put(key, new Slot<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    synchronized void remove(K key){
+        map.remove(key);
+        generation++;
+    }
+
+    synchronized void clear(){
+        map.clear();
+        generation++;
+    }
+}
@@ -0,0 +1,218 @@
+package me.robin.hyperrapor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// Local append-only journal used while the database is unreachable.
+// Records go into fixed-size memory-mapped segment files; a replayer reads them back
+// in order and deletes a segment once everything in it has been written to the DB.
+//
+// Segment layout: [magic:int][version:int][readPos:int][reserved:int] then records
+// of [len:int][type:byte][payload:len bytes]. len is written last, so a zero length
+// marks the end of the written area even after a crash mid-append.
+final class WriteAheadJournal {
+
+    static final byte TYPE_REPORT = 1;
+    static final byte TYPE_CHAT = 2;
+
+    static final class Record {
+        final byte type;
+        final byte[] payload;
+        Record(byte type, byte[] payload){ this.type = type; this.payload = payload; }
+    }
+
+    interface Handler {
+        // must throw if the batch was not fully persisted; it will be offered again
+        void replay(List<Record> batch) throws Exception;
+    }
+
+    private static final int MAGIC = 0x48524A31; // "HRJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int READ_POS_OFFSET = 8;
+
+    private static final class Segment {
+        final long index;
+        final File file;
+        final RandomAccessFile raf;
+        final MappedByteBuffer buf;
+        int writePos;
+        int readPos;
+        Segment(long index, File file, RandomAccessFile raf, MappedByteBuffer buf){
+            this.index = index; this.file = file; this.raf = raf; this.buf = buf;
+        }
+    }
+
+    private final File dir;
+    private final int segmentSize;
+    private final long maxBytes;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private boolean replaying;
+
+    WriteAheadJournal(File dir, int segmentSize, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.segmentSize = Math.max(64 * 1024, segmentSize);
+        this.maxBytes = maxBytes;
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Günlük klasörü oluşturulamadı: " + dir);
+        open();
+    }
+
+    private void open() throws IOException {
+        File[] files = dir.listFiles((d, n) -> n.startsWith("segment-") && n.endsWith(".wal"));
+        if (files == null) return;
+        Arrays.sort(files);
+        for (File f : files){
+            long index;
+            try {
+                index = Long.parseLong(f.getName().substring(8, f.getName().length() - 4));
+            } catch (NumberFormatException e){
+                continue;
+            }
+            Segment s = map(index, f);
+            if (s == null) continue;
+            // find end of written area
+            int pos = HEADER;
+            while (pos + 5 <= s.buf.capacity()){
+                int len = s.buf.getInt(pos);
+                if (len <= 0 || pos + 5 + len > s.buf.capacity()) break;
+                pos += 5 + len;
+            }
+            s.writePos = pos;
+            s.readPos = Math.min(Math.max(HEADER, s.buf.getInt(READ_POS_OFFSET)), pos);
+            if (s.readPos >= s.writePos){
+                close(s, true);
+                continue;
+            }
+            segments.addLast(s);
+        }
+    }
+
+    private Segment map(long index, File f) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(f, "rw");
+        boolean fresh = raf.length() < HEADER;
+        if (raf.length() < segmentSize && fresh) raf.setLength(segmentSize);
+        int size = (int) Math.min(Integer.MAX_VALUE, raf.length());
+        MappedByteBuffer buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (fresh){
+            buf.putInt(0, MAGIC);
+            buf.putInt(4, VERSION);
+            buf.putInt(READ_POS_OFFSET, HEADER);
+        } else if (buf.getInt(0) != MAGIC){
+            raf.close();
+            return null; // not ours, leave it alone
+        }
+        return new Segment(index, f, raf, buf);
+    }
+
+    private void close(Segment s, boolean delete){
+        try { s.raf.close(); } catch (IOException ignored) {}
+        // a still-mapped file may refuse deletion on some platforms; open() retries next start
+        if (delete) s.file.delete();
+    }
+
+    // Returns false if the record was refused because the journal is over its size limit
+    // (only when force is false) or too large for a segment.
+    synchronized boolean append(byte type, byte[] payload, boolean force) throws IOException {
+        if (payload.length + 5 > segmentSize - HEADER) return false;
+        if (!force && maxBytes > 0 && (long) segments.size() * segmentSize >= maxBytes) return false;
+        Segment s = segments.peekLast();
+        if (s == null || s.writePos + 5 + payload.length > s.buf.capacity()){
+            long next = s == null ? nextIndex() : s.index + 1;
+            s = map(next, new File(dir, String.format("segment-%012d.wal", next)));
+            s.writePos = HEADER;
+            s.readPos = HEADER;
+            segments.addLast(s);
+        }
+        int pos = s.writePos;
+        s.buf.put(pos + 4, type);
+        for (int i = 0; i < payload.length; i++) s.buf.put(pos + 5 + i, payload[i]);
+        s.buf.putInt(pos, payload.length); // commit marker
+        s.writePos = pos + 5 + payload.length;
+        if (force) s.buf.force();
+        return true;
+    }
+
+    private long nextIndex(){
+        long max = 0;
+        File[] files = dir.listFiles((d, n) -> n.startsWith("segment-") && n.endsWith(".wal"));
+        if (files != null){
+            for (File f : files){
+                try {
+                    max = Math.max(max, Long.parseLong(f.getName().substring(8, f.getName().length() - 4)));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        return max + 1;
+    }
+
+    synchronized boolean hasPending(){
+        for (Segment s : segments) if (s.readPos < s.writePos) return true;
+        return false;
+    }
+
+    // Drains the journal in order, maxBatch records at a time. Stops at the first failing
+    // batch and leaves it in place. Returns the number of records replayed.
+    int replay(Handler handler, int maxBatch) throws Exception {
+        synchronized (this){
+            if (replaying) return 0;
+            replaying = true;
+        }
+        int total = 0;
+        try {
+            while (true){
+                Segment s;
+                int end;
+                List<Record> batch = new ArrayList<>();
+                synchronized (this){
+                    s = segments.peekFirst();
+                    if (s == null) return total;
+                    int pos = s.readPos;
+                    while (pos < s.writePos && batch.size() < maxBatch){
+                        int len = s.buf.getInt(pos);
+                        byte type = s.buf.get(pos + 4);
+                        byte[] payload = new byte[len];
+                        for (int i = 0; i < len; i++) payload[i] = s.buf.get(pos + 5 + i);
+                        batch.add(new Record(type, payload));
+                        pos += 5 + len;
+                    }
+                    end = pos;
+                    if (batch.isEmpty()){
+                        if (segments.size() == 1) return total; // current write segment, keep it
+                        segments.pollFirst();
+                        close(s, true);
+                        continue;
+                    }
+                }
+                handler.replay(batch);
+                synchronized (this){
+                    s.readPos = end;
+                    s.buf.putInt(READ_POS_OFFSET, end);
+                    s.buf.force();
+                    if (s.readPos >= s.writePos && segments.size() > 1){
+                        segments.pollFirst();
+                        close(s, true);
+                    }
+                }
+                total += batch.size();
+            }
+        } finally {
+            synchronized (this){ replaying = false; }
+        }
+    }
+
+    synchronized void close(){
+        for (Segment s : segments){
+            s.buf.force();
+            close(s, s.readPos >= s.writePos);
+        }
+        segments.clear();
+    }
+}
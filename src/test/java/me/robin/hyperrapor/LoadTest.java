@@ -0,0 +1,345 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.PluginDescriptionFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// Headless load test; lives in src/test, so it never ships in the plugin jar. Boots the real
+// plugin on a StubServer with a throwaway data folder (SQLite) and drives it like a busy
+// server: simulated players chat through onPlayerChat (ring -> drain -> DB), reports go
+// through persistReport, staff page the admin GUI (PendingQueue -> GuiRenderer) and approve
+// reports. The harness thread is the main thread, so tick time is everything the plugin ran
+// on it. Prints p50/p99 latencies, tick time, DB throughput and lost chat, and exits 1 when
+// a threshold (esik.*) is exceeded.
+//
+//   mvn -P yuk-testi verify -Dyuk.args="oyuncu=500 rapor-dakika=60 yetkili=5 sure-saniye=60 sohbet=blok"
+public final class LoadTest {
+
+    private static final String SUNUCU = "yuktest";
+    private static final long TICK_NANOS = 50_000_000L;
+
+    // grows on demand; only percentile math needs the lock
+    static final class Samples {
+        private long[] v = new long[1024];
+        private int n;
+        synchronized void add(long x){
+            if (n == v.length) v = Arrays.copyOf(v, n * 2);
+            v[n++] = x;
+        }
+        synchronized long percentile(double p){
+            if (n == 0) return 0;
+            long[] c = Arrays.copyOf(v, n);
+            Arrays.sort(c);
+            int idx = (int) Math.ceil(p * n) - 1;
+            return c[Math.max(0, Math.min(n - 1, idx))];
+        }
+        synchronized int count(){ return n; }
+    }
+
+    static final class Harnessed extends HyperRapor {
+        Harnessed(StubServer server, File dataFolder){
+            super(server.server, new PluginDescriptionFile("HyperRapor", "yuktest", HyperRapor.class.getName()), dataFolder);
+        }
+        void enable(boolean on){
+            setEnabled(on);
+        }
+    }
+
+    private final int players;
+    private final double chatPerPlayerPerSec;
+    private final int reportsPerMin;
+    private final int staff;
+    private final int staffPageSeconds;
+    private final int seconds;
+    private final String chatMode;
+    private final double maxReportP99Ms;
+    private final double maxGuiP99Ms;
+    private final double maxTickP99Ms;
+    private final double minDbRowsPerSec;
+    private final long maxLostChat;
+
+    private final Samples reportLatency = new Samples();
+    private final Samples guiLatency = new Samples();
+    private final Samples tickTime = new Samples();
+    private final AtomicLong chatSent = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong warnings = new AtomicLong();
+    private final Queue<Integer> approvable = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Long> guiRequestedAt = new ConcurrentHashMap<>();
+    private final Set<Player> recipients = Collections.emptySet();
+
+    private LoadTest(Map<String, String> opts){
+        players = Math.max(1, intOpt(opts, "oyuncu", 500));
+        chatPerPlayerPerSec = doubleOpt(opts, "oyuncu-mesaj-saniye", 0.2);
+        reportsPerMin = intOpt(opts, "rapor-dakika", 60);
+        staff = intOpt(opts, "yetkili", 5);
+        staffPageSeconds = Math.max(1, intOpt(opts, "yetkili-sayfa-saniye", 3));
+        seconds = Math.max(5, intOpt(opts, "sure-saniye", 60));
+        chatMode = opts.getOrDefault("sohbet", "satir");
+        maxReportP99Ms = doubleOpt(opts, "esik.rapor-p99-ms", 50);
+        maxGuiP99Ms = doubleOpt(opts, "esik.gui-p99-ms", 100);
+        maxTickP99Ms = doubleOpt(opts, "esik.tick-p99-ms", 5);
+        minDbRowsPerSec = doubleOpt(opts, "esik.min-db-satir-saniye", 0);
+        maxLostChat = intOpt(opts, "esik.max-kayip-sohbet", 0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args){
+            int eq = a.indexOf('=');
+            if (eq > 0) opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        System.exit(new LoadTest(opts).run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Path dir = Files.createTempDirectory("hyperrapor-yuktest");
+        try {
+            writeConfig(dir.toFile());
+            return run(dir.toFile());
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)){
+                files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+            }
+        }
+    }
+
+    private boolean run(File dataFolder) throws Exception {
+        Logger log = Logger.getLogger("yuktest");
+        log.addHandler(new Handler(){
+            @Override
+            public void publish(LogRecord r){
+                if (r.getLevel().intValue() >= Level.WARNING.intValue()) warnings.incrementAndGet();
+            }
+            @Override
+            public void flush(){}
+            @Override
+            public void close(){}
+        });
+        StubServer server = new StubServer(log);
+        Bukkit.setServer(server.server);
+        server.onOpen((p, inv) -> {
+            Long t0 = guiRequestedAt.remove(p.getUniqueId());
+            if (t0 != null) guiLatency.add(System.nanoTime() - t0);
+        });
+        List<Player> chatters = new ArrayList<>();
+        for (int i = 0; i < players; i++) chatters.add(server.addPlayer("oyuncu" + i, false));
+        List<Player> staffPlayers = new ArrayList<>();
+        for (int i = 0; i < staff; i++) staffPlayers.add(server.addPlayer("yetkili" + i, true));
+
+        Harnessed plugin = new Harnessed(server, dataFolder);
+        server.attach(plugin);
+        plugin.enable(true);
+        long deadline = System.currentTimeMillis() + 30_000L;
+        while (!plugin.isReady()){
+            if (System.currentTimeMillis() > deadline) throw new IllegalStateException("Eklenti 30 sn içinde hazır olmadı");
+            server.tick();
+            Thread.sleep(50);
+        }
+        for (Player p : chatters) plugin.onPlayerJoin(new PlayerJoinEvent(p, null));
+        for (Player p : staffPlayers) plugin.onPlayerJoin(new PlayerJoinEvent(p, null));
+
+        System.out.println("Yük testi: " + players + " oyuncu, " + reportsPerMin + " rapor/dk, " + staff
+                + " yetkili, " + seconds + " sn, sohbet: " + chatMode);
+
+        // chat arrives on its own thread, as AsyncPlayerChatEvent does
+        ExecutorService reporters = Executors.newFixedThreadPool(4);
+        Thread chat = new Thread(() -> {
+            double carry = 0;
+            long next = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()){
+                carry += players * chatPerPlayerPerSec / 20.0;
+                while (carry >= 1){
+                    carry -= 1;
+                    Player p = chatters.get((int) (Math.random() * players));
+                    AsyncPlayerChatEvent e = new AsyncPlayerChatEvent(true, p, "yük testi mesajı " + chatSent.get(), recipients);
+                    plugin.onPlayerChat(e);
+                    chatSent.incrementAndGet();
+                }
+                next += TICK_NANOS;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0){
+                    try { Thread.sleep(sleep / 1_000_000L); } catch (InterruptedException ex){ return; }
+                }
+            }
+        }, "yuktest-sohbet");
+        chat.start();
+
+        long[] nextPageAt = new long[staff];
+        int[] staffPage = new int[staff];
+        double reportCarry = 0;
+        long startedAt = System.nanoTime();
+        long end = startedAt + seconds * 1_000_000_000L;
+        long nextTick = startedAt;
+        while (System.nanoTime() < end){
+            reportCarry += reportsPerMin / 1200.0;
+            while (reportCarry >= 1){
+                reportCarry -= 1;
+                submitReport(plugin, reporters);
+            }
+            long t0 = System.nanoTime();
+            for (int i = 0; i < staff; i++){
+                if (t0 < nextPageAt[i]) continue;
+                nextPageAt[i] = t0 + staffPageSeconds * 1_000_000_000L;
+                staffPage[i] = (staffPage[i] + 1) % 3;
+                Player p = staffPlayers.get(i);
+                guiRequestedAt.put(p.getUniqueId(), System.nanoTime());
+                plugin.openAdminGui(p, staffPage[i], ReportRepository.DURUM_BEKLIYOR);
+                // staff approves one report per page view
+                Integer id = approvable.poll();
+                if (id != null) plugin.approveReport(p, id, 60_000L, "ban", "yük testi");
+            }
+            server.tick();
+            tickTime.add(System.nanoTime() - t0);
+            nextTick += TICK_NANOS;
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+        }
+        double elapsed = (System.nanoTime() - startedAt) / 1e9;
+
+        chat.interrupt();
+        chat.join();
+        reporters.shutdown();
+        reporters.awaitTermination(30, TimeUnit.SECONDS);
+        // let queued main-thread work and the chat drain settle, then disable (final flush)
+        for (int i = 0; i < 40; i++){
+            server.tick();
+            Thread.sleep(50);
+        }
+        plugin.enable(false);
+        server.shutdown();
+
+        long[] rows = countRows(dataFolder, log);
+        return report(elapsed, rows, server.errors.get());
+    }
+
+    private void submitReport(HyperRapor plugin, ExecutorService reporters){
+        int from = (int) (Math.random() * players);
+        int to = (int) (Math.random() * players);
+        reporters.execute(() -> {
+            long t0 = System.nanoTime();
+            try {
+                int id = plugin.persistReport("oyuncu" + from, "oyuncu" + to, SUNUCU, System.currentTimeMillis(), "Hile");
+                reportLatency.add(System.nanoTime() - t0);
+                if (id > 0) approvable.add(id);
+            } catch (Exception e){
+                errors.incrementAndGet();
+                e.printStackTrace();
+            }
+        });
+    }
+
+    // {raporlar, rapor_logs, chat lines (plain + in blocks)}
+    private static long[] countRows(File dataFolder, Logger log) throws SQLException {
+        File dbFile = new File(dataFolder, "database.db");
+        Database db = new Database(Database.Dialect.SQLITE, "jdbc:sqlite:" + dbFile.getAbsolutePath(), null, null, log);
+        db.connect();
+        try {
+            return db.read(c -> {
+                try (Statement st = c.createStatement()){
+                    return new long[]{
+                            count(st, "SELECT COUNT(*) FROM raporlar"),
+                            count(st, "SELECT COUNT(*) FROM rapor_logs"),
+                            count(st, "SELECT COUNT(*) FROM chatlogs") + count(st, "SELECT COALESCE(SUM(adet), 0) FROM chatlog_bloklari")
+                    };
+                }
+            });
+        } finally {
+            db.close();
+        }
+    }
+
+    private static long count(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)){
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private boolean report(double elapsed, long[] rows, long serverErrors){
+        double repP50 = reportLatency.percentile(0.50) / 1e6, repP99 = reportLatency.percentile(0.99) / 1e6;
+        double guiP50 = guiLatency.percentile(0.50) / 1e6, guiP99 = guiLatency.percentile(0.99) / 1e6;
+        double tickP50 = tickTime.percentile(0.50) / 1e6, tickP99 = tickTime.percentile(0.99) / 1e6, tickMax = tickTime.percentile(1.0) / 1e6;
+        long dbRows = rows[0] + rows[1] + rows[2];
+        double rowsPerSec = dbRows / elapsed;
+        long lostChat = chatSent.get() - rows[2];
+        long errorCount = errors.get() + serverErrors;
+
+        List<String> failures = new ArrayList<>();
+        if (repP99 > maxReportP99Ms) failures.add(String.format("rapor p99 %.1f ms > %.1f ms", repP99, maxReportP99Ms));
+        if (guiP99 > maxGuiP99Ms) failures.add(String.format("gui p99 %.1f ms > %.1f ms", guiP99, maxGuiP99Ms));
+        if (tickP99 > maxTickP99Ms) failures.add(String.format("tick p99 %.2f ms > %.2f ms", tickP99, maxTickP99Ms));
+        if (rowsPerSec < minDbRowsPerSec) failures.add(String.format("db %.0f satır/sn < %.0f", rowsPerSec, minDbRowsPerSec));
+        if (lostChat > maxLostChat) failures.add(lostChat + " sohbet satırı kayboldu");
+        if (errorCount > 0) failures.add(errorCount + " hata");
+        if (warnings.get() > 0) failures.add(warnings.get() + " uyarı");
+
+        System.out.println("--- Yük testi sonucu ---");
+        System.out.println(String.format("Rapor gönderme: p50 %.2f ms, p99 %.2f ms (%d)", repP50, repP99, reportLatency.count()));
+        System.out.println(String.format("GUI açma: p50 %.2f ms, p99 %.2f ms (%d)", guiP50, guiP99, guiLatency.count()));
+        System.out.println(String.format("Tick süresi: p50 %.3f ms, p99 %.3f ms, max %.3f ms (%d tick)", tickP50, tickP99, tickMax, tickTime.count()));
+        System.out.println(String.format("Veritabanı: %d rapor, %d log, %d sohbet satırı; %.0f satır/sn", rows[0], rows[1], rows[2], rowsPerSec));
+        System.out.println(String.format("Sohbet: %d gönderildi, %d kayıp", chatSent.get(), lostChat));
+        if (failures.isEmpty()) System.out.println("BAŞARILI");
+        else System.out.println("BAŞARISIZ: " + String.join(", ", failures));
+        return failures.isEmpty();
+    }
+
+    // the shipped defaults, with the test's server name and chat storage mode
+    private void writeConfig(File dir) throws IOException {
+        for (String name : new String[]{"config.yml", "messages.yml"}){
+            try (InputStream in = LoadTest.class.getClassLoader().getResourceAsStream(name)){
+                if (in == null) throw new IOException(name + " bulunamadı (mvn test-compile?)");
+                Files.copy(in, new File(dir, name).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        File configFile = new File(dir, "config.yml");
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(configFile);
+        config.set("server-name", SUNUCU);
+        config.set("sohbet-depolama.tur", chatMode);
+        config.save(configFile);
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int def){
+        String v = opts.get(key);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    private static double doubleOpt(Map<String, String> opts, String key, double def){
+        String v = opts.get(key);
+        return v == null ? def : Double.parseDouble(v);
+    }
+}
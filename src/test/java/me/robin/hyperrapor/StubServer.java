@@ -0,0 +1,307 @@
+package me.robin.hyperrapor;
+
+import org.bukkit.Server;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+// Just enough of a Bukkit server to run the plugin headless: dynamic proxies for Server,
+// Player, Inventory and ItemMeta, and a scheduler whose sync tasks only run when the
+// harness calls tick() on its "main" thread. Async tasks go to real thread pools.
+// Anything the plugin calls that is not modelled here returns null / 0 / false.
+final class StubServer {
+
+    private static final class Task {
+        final int id;
+        final Runnable r;
+        final long period; // ticks, 0 = once
+        long next;         // tick to run at (sync only)
+        volatile boolean cancelled;
+        volatile ScheduledFuture<?> future; // async timers
+        Task(int id, Runnable r, long period){ this.id = id; this.r = r; this.period = period; }
+    }
+
+    final Server server;
+    private final Logger logger;
+    private final List<Player> online = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Player> byId = new ConcurrentHashMap<>();
+    private final ConsoleCommandSender console;
+    private final PluginManager pluginManager;
+    private final BukkitScheduler scheduler;
+    private final ItemFactory itemFactory;
+    private volatile HyperRapor plugin;
+    private volatile BiConsumer<Player, Inventory> openListener = (p, inv) -> {};
+
+    private final AtomicInteger taskIds = new AtomicInteger();
+    private final Map<Integer, Task> tasks = new ConcurrentHashMap<>();
+    private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+    private final List<Task> syncTasks = new ArrayList<>(); // main thread only
+    private final ExecutorService async = Executors.newCachedThreadPool(daemon("async"));
+    private final ScheduledExecutorService timers = Executors.newScheduledThreadPool(4, daemon("timer"));
+    private final Thread mainThread = Thread.currentThread(); // whoever builds the server ticks it
+    private long currentTick; // main thread only
+    final AtomicLong errors = new AtomicLong();
+
+    StubServer(Logger logger){
+        this.logger = logger;
+        this.console = proxy(ConsoleCommandSender.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "sendMessage": return null;
+                case "getName": return "CONSOLE";
+                case "hasPermission": case "isOp": return true;
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+        this.pluginManager = proxy(PluginManager.class, (self, m, a) -> fallback(self, m.getName(), m.getReturnType(), a));
+        this.scheduler = proxy(BukkitScheduler.class, this::schedule);
+        this.itemFactory = proxy(ItemFactory.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "getItemMeta": return newMeta(null, null);
+                case "isApplicable": return true;
+                case "asMetaFor": return a[0];
+                case "equals":
+                    if (a != null && a.length == 2) return java.util.Objects.equals(a[0], a[1]);
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+        this.server = proxy(Server.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "getScheduler": return scheduler;
+                case "getPluginManager": return pluginManager;
+                case "getConsoleSender": return console;
+                case "getOnlinePlayers": return new ArrayList<>(online);
+                case "getPlayer": return a[0] instanceof UUID ? byId.get(a[0]) : byName((String) a[0]);
+                case "getPlayerExact": return byName((String) a[0]);
+                case "getItemFactory": return itemFactory;
+                case "createInventory": return newInventory((Integer) a[1], a.length > 2 ? (String) a[2] : "");
+                case "dispatchCommand": return true;
+                case "isPrimaryThread": return Thread.currentThread() == mainThread;
+                case "getLogger": return logger;
+                case "getName": return "StubServer";
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+    }
+
+    void attach(HyperRapor plugin){
+        this.plugin = plugin;
+    }
+
+    // called on the main thread after a player's inventory is opened
+    void onOpen(BiConsumer<Player, Inventory> listener){
+        this.openListener = listener;
+    }
+
+    Player addPlayer(String name, boolean staff){
+        UUID id = UUID.randomUUID();
+        Player p = proxy(Player.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "getName": case "getDisplayName": return name;
+                case "getUniqueId": return id;
+                case "isOnline": return online.contains(self);
+                case "hasPermission": return staff;
+                case "isOp": return false;
+                case "sendMessage": case "closeInventory": return null;
+                case "openInventory":
+                    if (a[0] instanceof Inventory) openListener.accept((Player) self, (Inventory) a[0]);
+                    return null;
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+        online.add(p);
+        byId.put(id, p);
+        return p;
+    }
+
+    // One server tick: every sync task that is due, in submit order.
+    void tick(){
+        currentTick++;
+        Task t;
+        while ((t = incoming.poll()) != null){
+            t.next += currentTick - 1; // counted from the tick it was submitted in
+            syncTasks.add(t);
+        }
+        for (Iterator<Task> it = syncTasks.iterator(); it.hasNext(); ){
+            Task task = it.next();
+            if (!task.cancelled && task.next > currentTick) continue;
+            if (!task.cancelled) run(task.r);
+            if (task.cancelled || task.period <= 0){
+                it.remove();
+                tasks.remove(task.id);
+            } else {
+                task.next += task.period;
+            }
+        }
+    }
+
+    void shutdown() throws InterruptedException {
+        for (Task t : tasks.values()) cancel(t);
+        timers.shutdownNow();
+        async.shutdown();
+        async.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private Object schedule(Object self, java.lang.reflect.Method m, Object[] a){
+        String name = m.getName();
+        if (name.equals("cancelTask")){
+            Task t = tasks.get((Integer) a[0]);
+            if (t != null) cancel(t);
+            return null;
+        }
+        if (name.equals("cancelTasks") || name.equals("cancelAllTasks")){
+            for (Task t : tasks.values()) cancel(t);
+            return null;
+        }
+        if (!name.startsWith("runTask")) return fallback(self, name, m.getReturnType(), a);
+        Runnable r = (Runnable) a[1];
+        long delay = a.length > 2 ? Math.max(0, (Long) a[2]) : 0;
+        long period = a.length > 3 ? Math.max(1, (Long) a[3]) : 0;
+        Task t = new Task(taskIds.incrementAndGet(), r, period);
+        tasks.put(t.id, t);
+        if (name.endsWith("Asynchronously")){
+            if (period > 0){
+                t.future = timers.scheduleAtFixedRate(() -> run(r), delay * 50, period * 50, TimeUnit.MILLISECONDS);
+            } else if (delay > 0){
+                t.future = timers.schedule(() -> async.execute(() -> { tasks.remove(t.id); run(r); }), delay * 50, TimeUnit.MILLISECONDS);
+            } else {
+                async.execute(() -> { tasks.remove(t.id); if (!t.cancelled) run(r); });
+            }
+        } else {
+            t.next = Math.max(1, delay); // Bukkit runs "now" on the next tick
+            incoming.add(t);
+        }
+        return taskProxy(t, !name.endsWith("Asynchronously"));
+    }
+
+    private BukkitTask taskProxy(Task t, boolean sync){
+        return proxy(BukkitTask.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "getTaskId": return t.id;
+                case "getOwner": return plugin;
+                case "isSync": return sync;
+                case "isCancelled": return t.cancelled;
+                case "cancel": cancel(t); return null;
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+    }
+
+    private void cancel(Task t){
+        t.cancelled = true;
+        ScheduledFuture<?> f = t.future;
+        if (f != null) f.cancel(false);
+        if (f != null || t.period == 0) tasks.remove(t.id);
+    }
+
+    private void run(Runnable r){
+        try {
+            r.run();
+        } catch (Throwable e){
+            errors.incrementAndGet();
+            e.printStackTrace();
+        }
+    }
+
+    private Player byName(String name){
+        for (Player p : online) if (p.getName().equalsIgnoreCase(name)) return p;
+        return null;
+    }
+
+    private Inventory newInventory(int size, String title){
+        ItemStack[] slots = new ItemStack[size];
+        return proxy(Inventory.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "getSize": return size;
+                case "getTitle": case "getName": return title;
+                case "setItem": slots[(Integer) a[0]] = (ItemStack) a[1]; return null;
+                case "getItem": return slots[(Integer) a[0]];
+                case "getContents": return slots.clone();
+                case "clear":
+                    if (a == null) java.util.Arrays.fill(slots, null);
+                    else slots[(Integer) a[0]] = null;
+                    return null;
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+    }
+
+    private ItemMeta newMeta(String displayName, List<String> lore){
+        String[] name = {displayName};
+        List<String> lines = lore == null ? null : new ArrayList<>(lore);
+        Object[] loreRef = {lines};
+        return proxy(ItemMeta.class, (self, m, a) -> {
+            switch (m.getName()){
+                case "getDisplayName": return name[0];
+                case "setDisplayName": name[0] = (String) a[0]; return null;
+                case "hasDisplayName": return name[0] != null;
+                case "getLore": return loreRef[0] == null ? null : new ArrayList<>((List<?>) loreRef[0]);
+                case "setLore": loreRef[0] = a[0] == null ? null : new ArrayList<>((List<?>) a[0]); return null;
+                case "hasLore": return loreRef[0] != null;
+                case "clone": return newMeta(name[0], castLore(loreRef[0]));
+            }
+            return fallback(self, m.getName(), m.getReturnType(), a);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castLore(Object o){
+        return (List<String>) o;
+    }
+
+    private static Object fallback(Object self, String name, Class<?> type, Object[] a){
+        switch (name){
+            case "equals": if (a != null && a.length == 1) return self == a[0]; break;
+            case "hashCode": return System.identityHashCode(self);
+            case "toString": return "Stub" + self.getClass().getInterfaces()[0].getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(self));
+        }
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return (char) 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        return 0;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler h){
+        return type.cast(Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{type}, h));
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name){
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "stub-" + name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}